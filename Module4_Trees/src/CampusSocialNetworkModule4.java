@@ -1,8 +1,45 @@
 // Module 4: Trees - Campus Organization Structure
 // Demonstrates Binary Tree types (Full, Complete, Skewed, Balanced), BST, and AVL Tree
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // ========== BINARY TREE TYPES EXPLANATION ==========
 /*
@@ -59,6 +96,11 @@ class OrganizationTree {
         this.root = new OrgNode(presidentName, "President");
     }
 
+    // Wrap an existing hierarchy (e.g. one department decoded from a CompactOrgTree)
+    public OrganizationTree(OrgNode root) {
+        this.root = root;
+    }
+
     public OrgNode getRoot() {
         return root;
     }
@@ -199,291 +241,3816 @@ class OrganizationTree {
             if (current.right != null) queue.add(current.right);
         }
     }
-}
 
-// Node for Student GPA BST
-class StudentNode {
-    String name;
-    double gpa;
-    StudentNode left;
-    StudentNode right;
+    // Lazy traversal in the given order (stops as soon as the caller does)
+    public Iterator<OrgNode> iterator(TraversalOrder order) {
+        return new BinaryTreeIterator<>(root, order, n -> n.left, n -> n.right);
+    }
 
-    public StudentNode(String name, double gpa) {
-        this.name = name;
-        this.gpa = gpa;
-        this.left = null;
-        this.right = null;
+    // Stream of nodes; parallel streams split the work by subtree
+    public Stream<OrgNode> stream(TraversalOrder order, boolean parallel) {
+        return StreamSupport.stream(
+                new BinaryTreeSpliterator<>(root, Long.MAX_VALUE, order, n -> n.left, n -> n.right), parallel);
     }
 }
 
-// Binary Search Tree for Students sorted by GPA
-class StudentBST {
-    private StudentNode root;
+// ========== COMPACT ORGANIZATION TREE FILE (LAZY LOADING) ==========
+// Saves an OrganizationTree as:
+//   header   magic, node count, string count, string bytes, name index size
+//   shape    balanced parentheses in pre-order: "(" entering a node, ")"
+//            leaving it, 2 bits per node
+//   sides    1 bit per node: does it have a left child? (tells a lone child's side)
+//   refs     per node (pre-order): string-table positions of name and position
+//   names    (name string position, first pre-order number) pairs sorted by
+//            string position, so findByName is two binary searches
+//   strings  sorted, de-duplicated UTF-8 table ("Member" is stored once)
+// The file is memory-mapped; opening it scans only the shape bits to build
+// two small per-word summaries (open-paren counts and minimum excess). Nodes
+// are light handles: navigating reads shape bits, and names are decoded only
+// when asked for, so touching one department pages in little of the file.
+class CompactOrgTree implements Closeable {
+    private static final int MAGIC = 0x4F524732;  // "ORG2"
+    private static final int HEADER = 20;
 
-    public StudentBST() {
-        this.root = null;
-    }
+    private final FileChannel channel;
+    private final MappedByteBuffer file;
+    private final int nodeCount;
+    private final int stringCount;
+    private final int nameIndexCount;
+    private final int shapeOffset;
+    private final int sidesOffset;
+    private final int refsOffset;
+    private final int nameIndexOffset;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final int[] opensBefore;  // Open parens in all earlier shape words
+    private final byte[] minExcess;   // Lowest running excess inside each shape word
 
-    // Insert student (BST property: left < root < right)
-    public void insert(String name, double gpa) {
-        root = insertRecursive(root, name, gpa);
-        System.out.println("✓ Inserted: " + name + " (GPA: " + gpa + ")");
-    }
+    // Write tree to file (overwrites it)
+    public static void write(OrganizationTree tree, Path path) throws IOException {
+        List<OrgNode> preorder = new ArrayList<>();
+        tree.iterator(TraversalOrder.PRE_ORDER).forEachRemaining(preorder::add);
+        int n = preorder.size();
 
-    private StudentNode insertRecursive(StudentNode node, String name, double gpa) {
-        // Base case: empty position found
-        if (node == null) {
-            return new StudentNode(name, gpa);
+        TreeMap<String, Integer> table = new TreeMap<>();
+        for (OrgNode node : preorder) {
+            table.put(node.name, 0);
+            table.put(node.position, 0);
+        }
+        byte[][] encoded = new byte[table.size()][];
+        int stringBytes = 0;
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : table.entrySet()) {
+            entry.setValue(index);
+            encoded[index] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            stringBytes += encoded[index++].length;
         }
 
-        // BST property: smaller GPA goes left, larger goes right
-        if (gpa < node.gpa) {
-            node.left = insertRecursive(node.left, name, gpa);
-        } else if (gpa > node.gpa) {
-            node.right = insertRecursive(node.right, name, gpa);
+        // Name index: first pre-order number for each distinct name, in string order
+        int[] firstWithName = new int[encoded.length];
+        Arrays.fill(firstWithName, -1);
+        int nameIndexCount = 0;
+        for (int k = 0; k < n; k++) {
+            int code = table.get(preorder.get(k).name);
+            if (firstWithName[code] == -1) {
+                firstWithName[code] = k;
+                nameIndexCount++;
+            }
         }
-        // If equal, we could handle duplicates differently
 
-        return node;
-    }
+        // Shape: pre-order walk with explicit "close" markers
+        long[] shape = new long[(2 * n + 63) / 64];
+        long[] sides = new long[(n + 63) / 64];
+        OrgNode close = new OrgNode(null, null);
+        ArrayDeque<OrgNode> stack = new ArrayDeque<>();
+        if (n > 0) stack.push(tree.getRoot());
+        int bit = 0;
+        int rank = 0;
+        while (!stack.isEmpty()) {
+            OrgNode node = stack.pop();
+            if (node == close) {
+                bit++;  // ")" is a 0 bit
+                continue;
+            }
+            shape[bit >>> 6] |= 1L << (bit & 63);
+            bit++;
+            if (node.left != null) sides[rank >>> 6] |= 1L << (rank & 63);
+            rank++;
+            stack.push(close);
+            if (node.right != null) stack.push(node.right);
+            if (node.left != null) stack.push(node.left);
+        }
 
-    // Search for student by GPA
-    public StudentNode search(double gpa) {
-        return searchRecursive(root, gpa);
+        int size = HEADER + 8 * shape.length + 8 * sides.length + 8 * n + 8 * nameIndexCount
+                + 4 * (encoded.length + 1) + stringBytes;
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC).putInt(n).putInt(encoded.length).putInt(stringBytes).putInt(nameIndexCount);
+        for (long word : shape) out.putLong(word);
+        for (long word : sides) out.putLong(word);
+        for (OrgNode node : preorder) {
+            out.putInt(table.get(node.name)).putInt(table.get(node.position));
+        }
+        for (int code = 0; code < encoded.length; code++) {
+            if (firstWithName[code] != -1) out.putInt(code).putInt(firstWithName[code]);
+        }
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            out.putInt(offset);
+            offset += bytes.length;
+        }
+        out.putInt(offset);
+        for (byte[] bytes : encoded) out.put(bytes);
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) channel.write(out);
+        }
     }
 
-    private StudentNode searchRecursive(StudentNode node, double gpa) {
-        // Base cases: not found or found
-        if (node == null || node.gpa == gpa) {
-            return node;
+    public CompactOrgTree(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (channel.size() < HEADER || file.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a compact organisation tree file: " + path);
         }
+        nodeCount = file.getInt(4);
+        stringCount = file.getInt(8);
+        nameIndexCount = file.getInt(16);
+        int shapeWords = (2 * nodeCount + 63) / 64;
+        shapeOffset = HEADER;
+        sidesOffset = shapeOffset + 8 * shapeWords;
+        refsOffset = sidesOffset + 8 * ((nodeCount + 63) / 64);
+        nameIndexOffset = refsOffset + 8 * nodeCount;
+        stringOffsetsOffset = nameIndexOffset + 8 * nameIndexCount;
+        stringDataOffset = stringOffsetsOffset + 4 * (stringCount + 1);
 
-        // Search left or right based on BST property
-        if (gpa < node.gpa) {
-            return searchRecursive(node.left, gpa);
+        opensBefore = new int[shapeWords + 1];
+        minExcess = new byte[shapeWords];
+        for (int w = 0; w < shapeWords; w++) {
+            long word = shapeWord(w);
+            opensBefore[w + 1] = opensBefore[w] + Long.bitCount(word);
+            int excess = 0;
+            int lowest = Integer.MAX_VALUE;
+            for (int j = 0; j < 64; j++) {
+                excess += ((word >>> j) & 1) == 1 ? 1 : -1;
+                lowest = Math.min(lowest, excess);
+            }
+            minExcess[w] = (byte) lowest;
         }
-        return searchRecursive(node.right, gpa);
     }
 
-    // In-order traversal gives sorted order (ascending GPA)
-    public void inOrderTraversal() {
-        System.out.println("\n=== Students by GPA (Ascending) ===");
-        inOrderRecursive(root);
+    public int size() {
+        return nodeCount;
     }
 
-    private void inOrderRecursive(StudentNode node) {
-        if (node != null) {
-            inOrderRecursive(node.left);
-            System.out.println(node.name + ": " + node.gpa);
-            inOrderRecursive(node.right);
-        }
+    public CompactOrgNode getRoot() {
+        return nodeCount == 0 ? null : new CompactOrgNode(this, 0, 0);
     }
 
-    // Find minimum GPA (leftmost node)
-    public StudentNode findMin() {
-        if (root == null) return null;
-        StudentNode current = root;
-        while (current.left != null) {
-            current = current.left;
+    // First unit in pre-order with this name, or null (binary search on strings, then on the name index)
+    public CompactOrgNode findByName(String name) {
+        int lo = 0;
+        int hi = stringCount - 1;
+        int code = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = string(mid).compareTo(name);
+            if (cmp == 0) {
+                code = mid;
+                break;
+            }
+            if (cmp < 0) lo = mid + 1;
+            else hi = mid - 1;
         }
-        return current;
-    }
+        if (code == -1) return null;
 
-    // Find maximum GPA (rightmost node)
-    public StudentNode findMax() {
-        if (root == null) return null;
-        StudentNode current = root;
-        while (current.right != null) {
-            current = current.right;
+        lo = 0;
+        hi = nameIndexCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midCode = file.getInt(nameIndexOffset + 8 * mid);
+            if (midCode == code) {
+                int k = file.getInt(nameIndexOffset + 8 * mid + 4);
+                return new CompactOrgNode(this, selectOpen(k), k);
+            }
+            if (midCode < code) lo = mid + 1;
+            else hi = mid - 1;
         }
-        return current;
+        return null;  // Only a position title, never a unit name
     }
-}
 
-// Node for AVL Tree
-class AVLNode {
-    String name;
-    int studentId;
-    int height;
-    AVLNode left;
-    AVLNode right;
+    // Lazy traversal over handles (nothing is decoded until the caller asks)
+    public Iterator<CompactOrgNode> iterator(TraversalOrder order) {
+        return new BinaryTreeIterator<>(getRoot(), order, CompactOrgNode::getLeft, CompactOrgNode::getRight);
+    }
 
-    public AVLNode(String name, int studentId) {
-        this.name = name;
-        this.studentId = studentId;
-        this.height = 1;  // New node is at height 1
-        this.left = null;
-        this.right = null;
+    @Override
+    public void close() throws IOException {
+        channel.close();
     }
-}
 
-// AVL Tree (Self-balancing BST) for Students by ID
-class StudentAVL {
-    private AVLNode root;
+    String name(int preorder) {
+        return string(file.getInt(refsOffset + 8 * preorder));
+    }
 
-    public StudentAVL() {
-        this.root = null;
+    String position(int preorder) {
+        return string(file.getInt(refsOffset + 8 * preorder + 4));
     }
 
-    // Get height of node
-    private int height(AVLNode node) {
-        return (node == null) ? 0 : node.height;
+    boolean hasLeft(int preorder) {
+        long word = file.getLong(sidesOffset + 8 * (preorder >>> 6));
+        return ((word >>> (preorder & 63)) & 1) == 1;
     }
 
-    // Calculate balance factor (difference between left and right subtree heights)
-    private int getBalance(AVLNode node) {
-        return (node == null) ? 0 : height(node.left) - height(node.right);
+    boolean isOpen(int bit) {
+        if (bit >= 2 * nodeCount) return false;
+        return ((shapeWord(bit >>> 6) >>> (bit & 63)) & 1) == 1;
     }
 
-    // Update height of node
-    private void updateHeight(AVLNode node) {
-        node.height = 1 + Math.max(height(node.left), height(node.right));
+    // Pre-order number of the node whose "(" is at bit
+    int rankOpen(int bit) {
+        long word = shapeWord(bit >>> 6);
+        long below = word & ((1L << (bit & 63)) - 1);
+        return opensBefore[bit >>> 6] + Long.bitCount(below);
     }
 
-    // Right rotation (for Left-Left imbalance)
-    private AVLNode rotateRight(AVLNode y) {
-        AVLNode x = y.left;
-        AVLNode T2 = x.right;
+    // Bit position of the k-th "(" (k-th node in pre-order)
+    int selectOpen(int k) {
+        int lo = 0;
+        int hi = opensBefore.length - 2;
+        while (lo < hi) {  // Last word with opensBefore <= k
+            int mid = (lo + hi + 1) >>> 1;
+            if (opensBefore[mid] <= k) lo = mid;
+            else hi = mid - 1;
+        }
+        long word = shapeWord(lo);
+        for (int skip = k - opensBefore[lo]; skip > 0; skip--) {
+            word &= word - 1;  // Drop lowest set bit
+        }
+        return 64 * lo + Long.numberOfTrailingZeros(word);
+    }
 
-        // Perform rotation
-        x.right = y;
-        y.left = T2;
+    // Position of the ")" matching the "(" at bit; whole words are skipped
+    // when their minimum excess shows the match cannot be inside
+    int findClose(int bit) {
+        int excess = 1;
+        int position = bit + 1;
+        int words = minExcess.length;
+        while (true) {
+            int w = position >>> 6;
+            if ((position & 63) == 0 && w < words && excess + minExcess[w] > 0) {
+                long word = shapeWord(w);
+                excess += 2 * Long.bitCount(word) - 64;
+                position += 64;
+                continue;
+            }
+            excess += isOpen(position) ? 1 : -1;
+            if (excess == 0) return position;
+            position++;
+        }
+    }
 
-        // Update heights
-        updateHeight(y);
-        updateHeight(x);
+    private long shapeWord(int w) {
+        return file.getLong(shapeOffset + 8 * w);
+    }
 
-        System.out.println("  → Right rotation performed");
-        return x;
+    private String string(int code) {
+        int start = file.getInt(stringOffsetsOffset + 4 * code);
+        int end = file.getInt(stringOffsetsOffset + 4 * code + 4);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = file.duplicate();
+        view.position(stringDataOffset + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
+}
 
-    // Left rotation (for Right-Right imbalance)
-    private AVLNode rotateLeft(AVLNode x) {
-        AVLNode y = x.right;
-        AVLNode T2 = y.left;
+// Handle to one unit of a CompactOrgTree: a shape position and pre-order number
+final class CompactOrgNode {
+    private final CompactOrgTree tree;
+    private final int bit;
+    private final int preorder;
 
-        // Perform rotation
-        y.left = x;
-        x.right = T2;
+    CompactOrgNode(CompactOrgTree tree, int bit, int preorder) {
+        this.tree = tree;
+        this.bit = bit;
+        this.preorder = preorder;
+    }
 
-        // Update heights
-        updateHeight(x);
-        updateHeight(y);
+    public String getName() {
+        return tree.name(preorder);
+    }
 
-        System.out.println("  → Left rotation performed");
-        return y;
+    public String getPosition() {
+        return tree.position(preorder);
     }
 
-    // Insert student and balance tree
-    public void insert(String name, int studentId) {
-        root = insertRecursive(root, name, studentId);
-        System.out.println("✓ Inserted: " + name + " (ID: " + studentId + ")");
+    public CompactOrgNode getLeft() {
+        return tree.hasLeft(preorder) ? firstChild() : null;
     }
 
-    private AVLNode insertRecursive(AVLNode node, String name, int studentId) {
-        // Standard BST insertion
-        if (node == null) {
-            return new AVLNode(name, studentId);
-        }
+    public CompactOrgNode getRight() {
+        CompactOrgNode first = firstChild();
+        if (first == null || !tree.hasLeft(preorder)) return first;  // Lone child on the right, or none
+        int next = tree.findClose(first.bit) + 1;
+        return tree.isOpen(next) ? new CompactOrgNode(tree, next, tree.rankOpen(next)) : null;
+    }
 
-        if (studentId < node.studentId) {
-            node.left = insertRecursive(node.left, name, studentId);
-        } else if (studentId > node.studentId) {
-            node.right = insertRecursive(node.right, name, studentId);
-        } else {
-            return node;  // Duplicate IDs not allowed
+    // Units in this subtree, including this one (from the shape alone)
+    public int subtreeSize() {
+        return (tree.findClose(bit) - bit + 1) / 2;
+    }
+
+    // Decode just this subtree into ordinary OrgNodes
+    public OrgNode materialize() {
+        OrgNode top = new OrgNode(getName(), getPosition());
+        ArrayDeque<CompactOrgNode> handles = new ArrayDeque<>();
+        ArrayDeque<OrgNode> decoded = new ArrayDeque<>();  // Parallel to handles
+        handles.push(this);
+        decoded.push(top);
+        while (!handles.isEmpty()) {
+            CompactOrgNode handle = handles.pop();
+            OrgNode node = decoded.pop();
+            CompactOrgNode left = handle.getLeft();
+            CompactOrgNode right = handle.getRight();
+            if (left != null) {
+                node.left = new OrgNode(left.getName(), left.getPosition());
+                handles.push(left);
+                decoded.push(node.left);
+            }
+            if (right != null) {
+                node.right = new OrgNode(right.getName(), right.getPosition());
+                handles.push(right);
+                decoded.push(node.right);
+            }
         }
+        return top;
+    }
 
-        // Update height
-        updateHeight(node);
+    // Handles are created on every navigation step, so compare by position
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof CompactOrgNode)) return false;
+        CompactOrgNode node = (CompactOrgNode) other;
+        return node.tree == tree && node.bit == bit;
+    }
 
-        // Get balance factor
-        int balance = getBalance(node);
+    @Override
+    public int hashCode() {
+        return bit;
+    }
 
-        // Check for imbalance conditions and rotate
+    private CompactOrgNode firstChild() {
+        int next = bit + 1;
+        return tree.isOpen(next) ? new CompactOrgNode(tree, next, preorder + 1) : null;
+    }
+}
 
-        // Left-Left case (balance factor > 1 and new node in left subtree)
-        if (balance > 1 && studentId < node.left.studentId) {
-            System.out.println("  ⚖ Left-Left imbalance detected");
-            return rotateRight(node);
-        }
+// ========== LAZY TREE TRAVERSALS ==========
+// The printing traversals above are fine for a demo but cannot feed other
+// code. These yield one node per next() from an explicit stack (or queue for
+// level order), so callers can stop early (findFirst, anyMatch, limit) without
+// walking the rest of the tree. They work for any binary node type given its
+// left/right accessors, so OrganizationTree, StudentBST and StudentAVL share them.
+enum TraversalOrder {
+    PRE_ORDER,    // Root -> Left -> Right
+    IN_ORDER,     // Left -> Root -> Right
+    POST_ORDER,   // Left -> Right -> Root
+    LEVEL_ORDER   // Breadth-first
+}
 
-        // Right-Right case (balance factor < -1 and new node in right subtree)
-        if (balance < -1 && studentId > node.right.studentId) {
-            System.out.println("  ⚖ Right-Right imbalance detected");
-            return rotateLeft(node);
-        }
+class BinaryTreeIterator<N> implements Iterator<N> {
+    private final TraversalOrder order;
+    private final UnaryOperator<N> left;
+    private final UnaryOperator<N> right;
+    private final ArrayDeque<N> pending = new ArrayDeque<>();  // Stack, or queue for LEVEL_ORDER
 
-        // Left-Right case (balance factor > 1 and new node in right of left subtree)
-        if (balance > 1 && studentId > node.left.studentId) {
-            System.out.println("  ⚖ Left-Right imbalance detected");
-            node.left = rotateLeft(node.left);
-            return rotateRight(node);
+    public BinaryTreeIterator(N root, TraversalOrder order, UnaryOperator<N> left, UnaryOperator<N> right) {
+        this.order = order;
+        this.left = left;
+        this.right = right;
+        if (root == null) return;
+        switch (order) {
+            case IN_ORDER:
+                pushLeftSpine(root);
+                break;
+            case POST_ORDER:
+                pushFirstLeafPath(root);
+                break;
+            default:
+                pending.push(root);
         }
+    }
 
-        // Right-Left case (balance factor < -1 and new node in left of right subtree)
-        if (balance < -1 && studentId < node.right.studentId) {
-            System.out.println("  ⚖ Right-Left imbalance detected");
-            node.right = rotateRight(node.right);
-            return rotateLeft(node);
+    // Push the node and every left descendant (the in-order frontier)
+    private void pushLeftSpine(N node) {
+        while (node != null) {
+            pending.push(node);
+            node = left.apply(node);
         }
+    }
 
-        return node;
+    // Push the path to the first node post-order visits (left if any, else right)
+    private void pushFirstLeafPath(N node) {
+        while (node != null) {
+            pending.push(node);
+            N next = left.apply(node);
+            node = (next != null) ? next : right.apply(node);
+        }
     }
 
-    // In-order traversal
-    public void inOrderTraversal() {
-        System.out.println("\n=== Students by ID (Sorted) ===");
-        inOrderRecursive(root);
+    @Override
+    public boolean hasNext() {
+        return !pending.isEmpty();
     }
 
-    private void inOrderRecursive(AVLNode node) {
-        if (node != null) {
-            inOrderRecursive(node.left);
-            System.out.println("ID: " + node.studentId + " - " + node.name +
-                    " (Height: " + node.height + ", Balance: " + getBalance(node) + ")");
-            inOrderRecursive(node.right);
+    @Override
+    public N next() {
+        if (pending.isEmpty()) throw new NoSuchElementException();
+        N node, leftChild, rightChild;  // Each child read once: lookups may not be free
+        switch (order) {
+            case PRE_ORDER:
+                node = pending.pop();
+                rightChild = right.apply(node);
+                leftChild = left.apply(node);
+                if (rightChild != null) pending.push(rightChild);
+                if (leftChild != null) pending.push(leftChild);
+                return node;
+            case IN_ORDER:
+                node = pending.pop();
+                pushLeftSpine(right.apply(node));
+                return node;
+            case POST_ORDER:
+                node = pending.pop();
+                // Coming up from the left child: the right subtree is next
+                if (!pending.isEmpty() && node.equals(left.apply(pending.peek()))) {
+                    pushFirstLeafPath(right.apply(pending.peek()));
+                }
+                return node;
+            default:
+                node = pending.poll();
+                leftChild = left.apply(node);
+                rightChild = right.apply(node);
+                if (leftChild != null) pending.add(leftChild);
+                if (rightChild != null) pending.add(rightChild);
+                return node;
         }
     }
+}
 
-    // Display tree structure (for visualization)
-    public void displayTreeStructure() {
-        System.out.println("\n=== Tree Structure ===");
-        displayStructureRecursive(root, "", true);
+// Splits a traversal into independent subtrees for parallel streams while
+// keeping the encounter order. A piece is "leading nodes, one subtree, trailing
+// nodes"; splitting at subtree root s with children L and R gives:
+//   PRE_ORDER:  [leads + s, L]        then [R, trails]
+//   IN_ORDER:   [leads, L]            then [s, R, trails]
+//   POST_ORDER: [leads, L]            then [R, s + trails]
+// Level order is not a concatenation of subtrees, so it does not split.
+class BinaryTreeSpliterator<N> implements Spliterator<N> {
+    private final TraversalOrder order;
+    private final UnaryOperator<N> left;
+    private final UnaryOperator<N> right;
+    private List<N> leads;
+    private N subtree;
+    private List<N> trails;
+    private long estimate;
+    private Iterator<N> current;  // Set once traversal starts; no splitting after that
+    private int phase = 0;        // 0 = leads, 1 = subtree, 2 = trails
+
+    public BinaryTreeSpliterator(N root, long estimatedSize, TraversalOrder order,
+                                 UnaryOperator<N> left, UnaryOperator<N> right) {
+        this(Collections.emptyList(), root, Collections.emptyList(), estimatedSize, order, left, right);
     }
 
-    private void displayStructureRecursive(AVLNode node, String prefix, boolean isLeft) {
-        if (node != null) {
-            System.out.println(prefix + (isLeft ? "├── " : "└── ") +
-                    node.studentId + " (" + node.name + ") [BF: " + getBalance(node) + "]");
-            if (node.left != null || node.right != null) {
-                if (node.left != null) {
-                    displayStructureRecursive(node.left, prefix + (isLeft ? "│   " : "    "), true);
-                }
-                if (node.right != null) {
-                    displayStructureRecursive(node.right, prefix + (isLeft ? "│   " : "    "), false);
-                }
+    private BinaryTreeSpliterator(List<N> leads, N subtree, List<N> trails, long estimate,
+                                  TraversalOrder order, UnaryOperator<N> left, UnaryOperator<N> right) {
+        this.leads = leads;
+        this.subtree = subtree;
+        this.trails = trails;
+        this.estimate = estimate;
+        this.order = order;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super N> action) {
+        while (true) {
+            if (current == null) {
+                current = leads.iterator();
+                phase = 0;
+            }
+            if (current.hasNext()) {
+                action.accept(current.next());
+                return true;
+            }
+            if (phase == 0) {
+                current = new BinaryTreeIterator<>(subtree, order, left, right);
+                phase = 1;
+            } else if (phase == 1) {
+                current = trails.iterator();
+                phase = 2;
+            } else {
+                return false;
             }
         }
     }
-}
 
-public class CampusSocialNetworkModule4 {
-    public static void main(String[] args) {
-        System.out.println("=== BINARY TREE: Organization Structure ===\n");
+    @Override
+    public Spliterator<N> trySplit() {
+        if (current != null || subtree == null || order == TraversalOrder.LEVEL_ORDER) return null;
+        N s = subtree;
+        N l = left.apply(s);
+        N r = right.apply(s);
+        if (l == null && r == null) return null;
 
-        // Create organization tree
-        OrganizationTree csClub = new OrganizationTree("Alice Johnson");
-        csClub.addVicePresident("Bob Smith");
-        csClub.addSecretary("Charlie Brown");
+        List<N> prefixLeads = leads;
+        if (order == TraversalOrder.PRE_ORDER) {
+            prefixLeads = new ArrayList<>(leads);
+            prefixLeads.add(s);
+            leads = Collections.emptyList();
+        } else if (order == TraversalOrder.IN_ORDER) {
+            leads = Collections.singletonList(s);
+        } else {
+            List<N> newTrails = new ArrayList<>(trails.size() + 1);
+            newTrails.add(s);
+            newTrails.addAll(trails);
+            trails = newTrails;
+            leads = Collections.emptyList();
+        }
+        subtree = r;
+        long half = estimate >>> 1;
+        estimate -= half;
+        return new BinaryTreeSpliterator<>(prefixLeads, l, Collections.emptyList(), half, order, left, right);
+    }
 
-        // Add more members to create a FULL binary tree
-        csClub.getRoot().left.left = new OrgNode("Diana Prince", "Events Head");
-        csClub.getRoot().left.right = new OrgNode("Eve Wilson", "Tech Head");
-        csClub.getRoot().right.left = new OrgNode("Frank Miller", "Treasurer");
-        csClub.getRoot().right.right = new OrgNode("Grace Lee", "PR Head");
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
 
-        // Check tree properties
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
+
+// ========== N-ARY ORGANIZATION HIERARCHY ==========
+// Real organisations are not binary: a faculty can have any number of
+// departments, each with any number of units below it. Units live in flat
+// parent / first-child / next-sibling arrays indexed by a dense unit ID.
+//
+// Queries run on a derived index, rebuilt lazily after any change:
+// - Pre-order entry/exit times: X is under Y iff tin[Y] <= tin[X] < tout[Y], O(1)
+// - Euler tour (2n - 1 visits) + sparse table of the shallowest visit in every
+//   power-of-two window: the LCA of X and Y is the shallowest node visited
+//   between their first visits, found with two overlapping windows in O(1)
+class OrgHierarchy {
+    private String[] names = new String[16];
+    private String[] positions = new String[16];
+    private int[] parent = new int[16];
+    private int[] firstChild = new int[16];
+    private int[] lastChild = new int[16];
+    private int[] nextSibling = new int[16];
+    private final HashMap<String, Integer> idByName = new HashMap<>();
+    private int count = 0;
+
+    // Derived index (valid while built == true)
+    private boolean built = false;
+    private int modCount = 0;
+    private int[] depth;
+    private int[] tin;          // Pre-order position of each unit
+    private int[] tout;         // One past the last pre-order position in its subtree
+    private int[] preorder;     // Unit at each pre-order position
+    private int[] firstVisit;   // Index of each unit's first appearance in the Euler tour
+    private int[][] sparse;     // sparse[k][i] = shallowest unit in euler[i .. i + 2^k)
+
+    public OrgHierarchy(String headName, String position) {
+        addNode(headName, position, -1);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Bumped on every structural change so dependent indexes know to rebuild
+    public int getModCount() {
+        return modCount;
+    }
+
+    public boolean contains(String name) {
+        return idByName.containsKey(name);
+    }
+
+    public int idOf(String name) {
+        Integer id = idByName.get(name);
+        if (id == null) throw new IllegalArgumentException("Unknown unit: " + name);
+        return id;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    public String positionOf(int id) {
+        return positions[id];
+    }
+
+    public String getParent(String name) {
+        int p = parent[idOf(name)];
+        return p == -1 ? null : names[p];
+    }
+
+    public List<String> getChildren(String name) {
+        List<String> children = new ArrayList<>();
+        for (int c = firstChild[idOf(name)]; c != -1; c = nextSibling[c]) {
+            children.add(names[c]);
+        }
+        return children;
+    }
+
+    // Add a unit below an existing one; returns its ID
+    public int addUnit(String name, String position, String parentName) {
+        if (idByName.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate unit: " + name);
+        }
+        return addNode(name, position, idOf(parentName));
+    }
+
+    // Re-attach a unit (with its whole subtree) under a new parent
+    public void moveUnit(String name, String newParentName) {
+        int id = idOf(name);
+        int target = idOf(newParentName);
+        if (parent[id] == -1) throw new IllegalArgumentException("Cannot move the head of the organisation");
+        for (int a = target; a != -1; a = parent[a]) {
+            if (a == id) throw new IllegalArgumentException(newParentName + " is inside " + name + "'s subtree");
+        }
+        unlink(id);
+        link(id, target);
+        invalidate();
+    }
+
+    // Lowest common superior of two units (a unit counts as its own superior)
+    public String lowestCommonAncestor(String a, String b) {
+        return names[lca(idOf(a), idOf(b))];
+    }
+
+    // Is member in superior's chain of command (superior is member or above it)?
+    public boolean isInChainOfCommand(String member, String superior) {
+        ensureBuilt();
+        int x = idOf(member);
+        int y = idOf(superior);
+        return tin[y] <= tin[x] && tin[x] < tout[y];
+    }
+
+    public int depth(String name) {
+        ensureBuilt();
+        return depth[idOf(name)];
+    }
+
+    // Reporting-line hops between two units (up to their LCA and back down)
+    public int distance(String a, String b) {
+        int x = idOf(a);
+        int y = idOf(b);
+        int l = lca(x, y);
+        return depth[x] + depth[y] - 2 * depth[l];
+    }
+
+    // Pre-order interval [tin, tout) covering exactly the unit's subtree
+    public int subtreeStart(int id) {
+        ensureBuilt();
+        return tin[id];
+    }
+
+    public int subtreeEnd(int id) {
+        ensureBuilt();
+        return tout[id];
+    }
+
+    public int unitAtPreorder(int position) {
+        ensureBuilt();
+        return preorder[position];
+    }
+
+    // Import the binary OrganizationTree (left and right become ordinary children)
+    public static OrgHierarchy fromBinaryTree(OrganizationTree tree) {
+        OrgNode head = tree.getRoot();
+        OrgHierarchy hierarchy = new OrgHierarchy(head.name, head.position);
+        ArrayDeque<OrgNode> queue = new ArrayDeque<>();
+        queue.add(head);
+        while (!queue.isEmpty()) {
+            OrgNode node = queue.poll();
+            for (OrgNode child : new OrgNode[]{node.left, node.right}) {
+                if (child == null) continue;
+                hierarchy.addUnit(child.name, child.position, node.name);
+                queue.add(child);
+            }
+        }
+        return hierarchy;
+    }
+
+    private int lca(int x, int y) {
+        ensureBuilt();
+        int lo = Math.min(firstVisit[x], firstVisit[y]);
+        int hi = Math.max(firstVisit[x], firstVisit[y]);
+        int k = 31 - Integer.numberOfLeadingZeros(hi - lo + 1);
+        int left = sparse[k][lo];
+        int right = sparse[k][hi - (1 << k) + 1];
+        return depth[left] <= depth[right] ? left : right;
+    }
+
+    private int addNode(String name, String position, int parentId) {
+        if (count == names.length) {
+            int capacity = count * 2;
+            names = Arrays.copyOf(names, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            lastChild = Arrays.copyOf(lastChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+        }
+        int id = count++;
+        names[id] = name;
+        positions[id] = position;
+        firstChild[id] = -1;
+        lastChild[id] = -1;
+        nextSibling[id] = -1;
+        parent[id] = -1;
+        idByName.put(name, id);
+        if (parentId != -1) link(id, parentId);
+        invalidate();
+        return id;
+    }
+
+    // Append id as the last child of p
+    private void link(int id, int p) {
+        parent[id] = p;
+        nextSibling[id] = -1;
+        if (lastChild[p] == -1) {
+            firstChild[p] = id;
+        } else {
+            nextSibling[lastChild[p]] = id;
+        }
+        lastChild[p] = id;
+    }
+
+    private void unlink(int id) {
+        int p = parent[id];
+        int previous = -1;
+        for (int c = firstChild[p]; c != id; c = nextSibling[c]) {
+            previous = c;
+        }
+        if (previous == -1) {
+            firstChild[p] = nextSibling[id];
+        } else {
+            nextSibling[previous] = nextSibling[id];
+        }
+        if (lastChild[p] == id) lastChild[p] = previous;
+        nextSibling[id] = -1;
+        parent[id] = -1;
+    }
+
+    private void invalidate() {
+        built = false;
+        modCount++;
+    }
+
+    // O(n) iterative DFS for the tour and intervals, then O(n log n) sparse table
+    private void ensureBuilt() {
+        if (built) return;
+        int n = count;
+        depth = new int[n];
+        tin = new int[n];
+        tout = new int[n];
+        preorder = new int[n];
+        firstVisit = new int[n];
+        int[] euler = new int[2 * n - 1];
+        int[] cursor = new int[n];  // Next child to descend into, per unit
+        int[] stack = new int[n];
+        int top = 0;
+        int time = 0;
+        int length = 0;
+
+        stack[top++] = 0;
+        cursor[0] = firstChild[0];
+        preorder[time] = 0;
+        tin[0] = time++;
+        firstVisit[0] = length;
+        euler[length++] = 0;
+        while (top > 0) {
+            int v = stack[top - 1];
+            int c = cursor[v];
+            if (c != -1) {
+                cursor[v] = nextSibling[c];
+                cursor[c] = firstChild[c];
+                depth[c] = depth[v] + 1;
+                preorder[time] = c;
+                tin[c] = time++;
+                firstVisit[c] = length;
+                euler[length++] = c;
+                stack[top++] = c;
+            } else {
+                top--;
+                tout[v] = time;
+                if (top > 0) euler[length++] = stack[top - 1];  // Back up to the parent
+            }
+        }
+
+        int levels = 32 - Integer.numberOfLeadingZeros(length);
+        sparse = new int[levels][];
+        sparse[0] = euler;
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int[] previous = sparse[k - 1];
+            int[] current = new int[length - (1 << k) + 1];
+            for (int i = 0; i < current.length; i++) {
+                int a = previous[i];
+                int b = previous[i + half];
+                current[i] = depth[a] <= depth[b] ? a : b;
+            }
+            sparse[k] = current;
+        }
+        built = true;
+    }
+}
+
+// ========== SUBTREE AGGREGATES (EULER TOUR + FENWICK) ==========
+// Every subtree of OrgHierarchy is one contiguous pre-order interval
+// [tin, tout). Laying the per-unit values out in pre-order turns
+// "everything under this department" into a range query:
+// - Fenwick tree (binary indexed tree) for sums: O(log n) query and update
+// - Segment tree for the maximum: O(log n) query and update
+// Unit count needs no structure at all: it is tout - tin.
+
+// Fenwick tree over long values, positions 0..n-1
+class FenwickTree {
+    private final long[] tree;  // 1-based internally
+
+    // O(n) construction: each cell pushes its total to its parent once
+    public FenwickTree(long[] values) {
+        tree = new long[values.length + 1];
+        for (int i = 1; i <= values.length; i++) {
+            tree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= values.length) tree[parent] += tree[i];
+        }
+    }
+
+    public void add(int position, long delta) {
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Sum of positions [0, end)
+    public long prefixSum(int end) {
+        long sum = 0;
+        for (int i = end; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Sum of positions [from, to)
+    public long rangeSum(int from, int to) {
+        return prefixSum(to) - prefixSum(from);
+    }
+}
+
+// Iterative (bottom-up) segment tree for range maximum, positions 0..n-1
+class MaxSegmentTree {
+    private final int n;
+    private final long[] tree;  // Leaves at [n, 2n)
+
+    public MaxSegmentTree(long[] values) {
+        n = values.length;
+        tree = new long[2 * n];
+        System.arraycopy(values, 0, tree, n, n);
+        for (int i = n - 1; i > 0; i--) {
+            tree[i] = Math.max(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    public void set(int position, long value) {
+        int i = position + n;
+        tree[i] = value;
+        for (i >>= 1; i > 0; i >>= 1) {
+            tree[i] = Math.max(tree[2 * i], tree[2 * i + 1]);
+        }
+    }
+
+    // Maximum of positions [from, to); Long.MIN_VALUE if empty
+    public long rangeMax(int from, int to) {
+        long max = Long.MIN_VALUE;
+        for (int lo = from + n, hi = to + n; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) max = Math.max(max, tree[lo++]);
+            if ((hi & 1) == 1) max = Math.max(max, tree[--hi]);
+        }
+        return max;
+    }
+}
+
+// Member counts and budgets per unit, with O(log n) subtree totals.
+// Values are kept by unit ID; if the hierarchy changes shape the pre-order
+// layout shifts, so the trees are rebuilt in O(n) on the next access.
+class OrgChartAggregates {
+    private final OrgHierarchy hierarchy;
+    private long[] members = new long[0];  // By unit ID
+    private long[] budgets = new long[0];  // By unit ID
+    private FenwickTree memberSums;
+    private FenwickTree budgetSums;
+    private MaxSegmentTree budgetMax;
+    private int builtFor = -1;  // Hierarchy modCount the trees were built for
+
+    public OrgChartAggregates(OrgHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    public void setMembers(String unit, long count) {
+        int id = hierarchy.idOf(unit);
+        ensureBuilt();
+        memberSums.add(hierarchy.subtreeStart(id), count - members[id]);
+        members[id] = count;
+    }
+
+    // A member joining (+1) or leaving (-1)
+    public void addMembers(String unit, long delta) {
+        int id = hierarchy.idOf(unit);
+        ensureBuilt();
+        memberSums.add(hierarchy.subtreeStart(id), delta);
+        members[id] += delta;
+    }
+
+    public void setBudget(String unit, long budget) {
+        int id = hierarchy.idOf(unit);
+        ensureBuilt();
+        int position = hierarchy.subtreeStart(id);
+        budgetSums.add(position, budget - budgets[id]);
+        budgetMax.set(position, budget);
+        budgets[id] = budget;
+    }
+
+    public long subtreeMembers(String unit) {
+        int id = hierarchy.idOf(unit);
+        ensureBuilt();
+        return memberSums.rangeSum(hierarchy.subtreeStart(id), hierarchy.subtreeEnd(id));
+    }
+
+    public long subtreeBudget(String unit) {
+        int id = hierarchy.idOf(unit);
+        ensureBuilt();
+        return budgetSums.rangeSum(hierarchy.subtreeStart(id), hierarchy.subtreeEnd(id));
+    }
+
+    // Largest single-unit budget in the subtree
+    public long maxBudgetInSubtree(String unit) {
+        int id = hierarchy.idOf(unit);
+        ensureBuilt();
+        return budgetMax.rangeMax(hierarchy.subtreeStart(id), hierarchy.subtreeEnd(id));
+    }
+
+    // Units in the subtree, including the unit itself
+    public int subtreeUnitCount(String unit) {
+        int id = hierarchy.idOf(unit);
+        return hierarchy.subtreeEnd(id) - hierarchy.subtreeStart(id);
+    }
+
+    private void ensureBuilt() {
+        if (builtFor == hierarchy.getModCount()) return;
+        int n = hierarchy.size();
+        members = Arrays.copyOf(members, n);  // New units start at zero
+        budgets = Arrays.copyOf(budgets, n);
+        long[] memberLayout = new long[n];
+        long[] budgetLayout = new long[n];
+        for (int position = 0; position < n; position++) {
+            int id = hierarchy.unitAtPreorder(position);
+            memberLayout[position] = members[id];
+            budgetLayout[position] = budgets[id];
+        }
+        memberSums = new FenwickTree(memberLayout);
+        budgetSums = new FenwickTree(budgetLayout);
+        budgetMax = new MaxSegmentTree(budgetLayout);
+        builtFor = hierarchy.getModCount();
+    }
+}
+
+// Node for Student GPA BST
+class StudentNode {
+    String name;
+    double gpa;
+    int size;  // Students in this subtree (for range counts)
+    StudentNode left;
+    StudentNode right;
+
+    public StudentNode(String name, double gpa) {
+        this.name = name;
+        this.gpa = gpa;
+        this.size = 1;
+        this.left = null;
+        this.right = null;
+    }
+}
+
+// Binary Search Tree for Students sorted by GPA
+class StudentBST {
+    private StudentNode root;
+
+    public StudentBST() {
+        this.root = null;
+    }
+
+    // Insert student (BST property: left < root < right)
+    public void insert(String name, double gpa) {
+        put(name, gpa);
+        System.out.println("✓ Inserted: " + name + " (GPA: " + gpa + ")");
+    }
+
+    // Insert without console output
+    public void put(String name, double gpa) {
+        root = insertRecursive(root, name, gpa);
+    }
+
+    private StudentNode insertRecursive(StudentNode node, String name, double gpa) {
+        // Base case: empty position found
+        if (node == null) {
+            return new StudentNode(name, gpa);
+        }
+
+        // BST property: smaller GPA goes left, larger (or equal) goes right
+        // Equal GPAs go right so no student is dropped and ties keep insertion order
+        if (gpa < node.gpa) {
+            node.left = insertRecursive(node.left, name, gpa);
+        } else {
+            node.right = insertRecursive(node.right, name, gpa);
+        }
+        node.size++;
+
+        return node;
+    }
+
+    // Search for student by GPA
+    public StudentNode search(double gpa) {
+        return searchRecursive(root, gpa);
+    }
+
+    private StudentNode searchRecursive(StudentNode node, double gpa) {
+        // Base cases: not found or found
+        if (node == null || node.gpa == gpa) {
+            return node;
+        }
+
+        // Search left or right based on BST property
+        if (gpa < node.gpa) {
+            return searchRecursive(node.left, gpa);
+        }
+        return searchRecursive(node.right, gpa);
+    }
+
+    // In-order traversal gives sorted order (ascending GPA)
+    public void inOrderTraversal() {
+        System.out.println("\n=== Students by GPA (Ascending) ===");
+        inOrderRecursive(root);
+    }
+
+    private void inOrderRecursive(StudentNode node) {
+        if (node != null) {
+            inOrderRecursive(node.left);
+            System.out.println(node.name + ": " + node.gpa);
+            inOrderRecursive(node.right);
+        }
+    }
+
+    // Find minimum GPA (leftmost node)
+    public StudentNode findMin() {
+        if (root == null) return null;
+        StudentNode current = root;
+        while (current.left != null) {
+            current = current.left;
+        }
+        return current;
+    }
+
+    // Find maximum GPA (rightmost node)
+    public StudentNode findMax() {
+        if (root == null) return null;
+        StudentNode current = root;
+        while (current.right != null) {
+            current = current.right;
+        }
+        return current;
+    }
+
+    // Lazy iterator over students with minGpa <= GPA <= maxGpa
+    public Iterator<StudentNode> rangeIterator(double minGpa, double maxGpa, boolean ascending) {
+        return new GpaRangeIterator(root, minGpa, maxGpa, ascending);
+    }
+
+    // Number of students with minGpa <= GPA <= maxGpa (one walk per bound, no listing)
+    public int countInRange(double minGpa, double maxGpa) {
+        if (minGpa > maxGpa) return 0;
+        return countAtMost(maxGpa) - countBelow(minGpa);
+    }
+
+    // Students with GPA < gpa
+    private int countBelow(double gpa) {
+        int count = 0;
+        StudentNode current = root;
+        while (current != null) {
+            if (current.gpa < gpa) {
+                count += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return count;
+    }
+
+    // Students with GPA <= gpa
+    private int countAtMost(double gpa) {
+        int count = 0;
+        StudentNode current = root;
+        while (current != null) {
+            if (current.gpa <= gpa) {
+                count += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return count;
+    }
+
+    private int size(StudentNode node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    // Lazy traversal in the given order (stops as soon as the caller does)
+    public Iterator<StudentNode> iterator(TraversalOrder order) {
+        return new BinaryTreeIterator<>(root, order, n -> n.left, n -> n.right);
+    }
+
+    // Stream of nodes; parallel streams split the work by subtree
+    public Stream<StudentNode> stream(TraversalOrder order, boolean parallel) {
+        return StreamSupport.stream(
+                new BinaryTreeSpliterator<>(root, size(root), order, n -> n.left, n -> n.right), parallel);
+    }
+}
+
+// ========== LAZY GPA RANGE ITERATOR ==========
+// Walks only the part of a StudentBST inside [minGpa, maxGpa], one student per
+// next() call, using an explicit stack instead of recursion.
+// Ascending: the stack holds the path of "next smaller" candidates; left subtrees
+// below minGpa are never pushed, and iteration stops at the first GPA > maxGpa.
+// Descending is the mirror image. Cost: O(h + k) for k results.
+
+class GpaRangeIterator implements Iterator<StudentNode> {
+    private final double minGpa;
+    private final double maxGpa;
+    private final boolean ascending;
+    private final ArrayDeque<StudentNode> stack = new ArrayDeque<>();
+
+    public GpaRangeIterator(StudentNode root, double minGpa, double maxGpa, boolean ascending) {
+        this.minGpa = minGpa;
+        this.maxGpa = maxGpa;
+        this.ascending = ascending;
+        pushPath(root);
+    }
+
+    // Push the in-range edge of the subtree, skipping branches outside the bounds
+    private void pushPath(StudentNode node) {
+        while (node != null) {
+            if (ascending) {
+                if (node.gpa < minGpa) {
+                    node = node.right;  // Whole left side is too small
+                } else {
+                    stack.push(node);
+                    node = node.left;
+                }
+            } else {
+                if (node.gpa > maxGpa) {
+                    node = node.left;   // Whole right side is too large
+                } else {
+                    stack.push(node);
+                    node = node.right;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (stack.isEmpty()) return false;
+
+        // Past the far bound: nothing later can be in range
+        StudentNode top = stack.peek();
+        if (ascending ? top.gpa > maxGpa : top.gpa < minGpa) {
+            stack.clear();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public StudentNode next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        StudentNode node = stack.pop();
+        pushPath(ascending ? node.right : node.left);
+        return node;
+    }
+}
+
+// ========== ORDER-STATISTIC GPA INDEX ==========
+// AVL tree ordered by (GPA, student ID), so students with equal GPAs are all kept.
+// Each node also stores the size of its subtree, which turns "how many students
+// rank below X?" (rank) and "who is k-th?" (select) into one root-to-leaf walk:
+// at each node, the left subtree size says how many students come before it.
+
+class GpaRankNode {
+    String name;
+    int studentId;
+    double gpa;
+    int height;
+    int size;  // Nodes in this subtree (including itself)
+    GpaRankNode left;
+    GpaRankNode right;
+
+    public GpaRankNode(String name, int studentId, double gpa) {
+        this.name = name;
+        this.studentId = studentId;
+        this.gpa = gpa;
+        this.height = 1;
+        this.size = 1;
+        this.left = null;
+        this.right = null;
+    }
+}
+
+class GpaRankIndex {
+    private GpaRankNode root;
+    private HashMap<Integer, Double> gpaById;  // Finds a student's key for rank/delete
+
+    public GpaRankIndex() {
+        this.root = null;
+        this.gpaById = new HashMap<>();
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean contains(int studentId) {
+        return gpaById.containsKey(studentId);
+    }
+
+    // Insert student (returns false if the ID is already indexed)
+    public boolean insert(String name, int studentId, double gpa) {
+        if (gpaById.containsKey(studentId)) return false;
+        gpaById.put(studentId, gpa);
+        root = insertRecursive(root, name, studentId, gpa);
+        return true;
+    }
+
+    // Remove student by ID (returns false if not indexed)
+    public boolean delete(int studentId) {
+        Double gpa = gpaById.remove(studentId);
+        if (gpa == null) return false;
+        root = deleteRecursive(root, gpa, studentId);
+        return true;
+    }
+
+    // GPA of an indexed student, or null
+    public Double getGpa(int studentId) {
+        return gpaById.get(studentId);
+    }
+
+    // Number of students ordered before this one (0 = lowest GPA)
+    public int rank(int studentId) {
+        Double gpa = gpaById.get(studentId);
+        if (gpa == null) return -1;
+
+        int before = 0;
+        GpaRankNode current = root;
+        while (current != null) {
+            int cmp = compare(gpa, studentId, current);
+            if (cmp < 0) {
+                current = current.left;
+            } else {
+                before += size(current.left);
+                if (cmp == 0) return before;
+                before++;
+                current = current.right;
+            }
+        }
+        return -1;
+    }
+
+    // Number of students with GPA strictly below gpa
+    public int countBelow(double gpa) {
+        int count = 0;
+        GpaRankNode current = root;
+        while (current != null) {
+            if (current.gpa < gpa) {
+                count += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return count;
+    }
+
+    // Share of students with a lower GPA (ties count as equal), 0-100
+    public double percentile(int studentId) {
+        Double gpa = gpaById.get(studentId);
+        if (gpa == null) return -1;
+        return 100.0 * countBelow(gpa) / size();
+    }
+
+    // k-th student in ascending order (k = 0 is the lowest GPA)
+    public GpaRankNode select(int k) {
+        if (k < 0 || k >= size()) return null;
+
+        GpaRankNode current = root;
+        while (current != null) {
+            int leftSize = size(current.left);
+            if (k < leftSize) {
+                current = current.left;
+            } else if (k == leftSize) {
+                return current;
+            } else {
+                k -= leftSize + 1;
+                current = current.right;
+            }
+        }
+        return null;
+    }
+
+    // k-th best student (k = 1 is the highest GPA)
+    public GpaRankNode selectBest(int k) {
+        return select(size() - k);
+    }
+
+    // Order by GPA, then by student ID
+    private int compare(double gpa, int studentId, GpaRankNode node) {
+        int cmp = Double.compare(gpa, node.gpa);
+        return (cmp != 0) ? cmp : Integer.compare(studentId, node.studentId);
+    }
+
+    private int size(GpaRankNode node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    private int height(GpaRankNode node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    private void update(GpaRankNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private GpaRankNode rotateRight(GpaRankNode y) {
+        GpaRankNode x = y.left;
+        y.left = x.right;
+        x.right = y;
+        update(y);
+        update(x);
+        return x;
+    }
+
+    private GpaRankNode rotateLeft(GpaRankNode x) {
+        GpaRankNode y = x.right;
+        x.right = y.left;
+        y.left = x;
+        update(x);
+        update(y);
+        return y;
+    }
+
+    // Restore the AVL property at node (after its subtree changed)
+    private GpaRankNode rebalance(GpaRankNode node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);  // Left-Right case
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);  // Right-Left case
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private GpaRankNode insertRecursive(GpaRankNode node, String name, int studentId, double gpa) {
+        if (node == null) {
+            return new GpaRankNode(name, studentId, gpa);
+        }
+
+        if (compare(gpa, studentId, node) < 0) {
+            node.left = insertRecursive(node.left, name, studentId, gpa);
+        } else {
+            node.right = insertRecursive(node.right, name, studentId, gpa);
+        }
+        return rebalance(node);
+    }
+
+    private GpaRankNode deleteRecursive(GpaRankNode node, double gpa, int studentId) {
+        if (node == null) return null;
+
+        int cmp = compare(gpa, studentId, node);
+        if (cmp < 0) {
+            node.left = deleteRecursive(node.left, gpa, studentId);
+        } else if (cmp > 0) {
+            node.right = deleteRecursive(node.right, gpa, studentId);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+
+            // Two children: replace with the in-order successor
+            GpaRankNode successor = node.right;
+            while (successor.left != null) successor = successor.left;
+            node.name = successor.name;
+            node.studentId = successor.studentId;
+            node.gpa = successor.gpa;
+            node.right = deleteRecursive(node.right, successor.gpa, successor.studentId);
+        }
+        return rebalance(node);
+    }
+}
+
+// ========== TOP-K GPA LEADERBOARD ==========
+// The dean's list shows the best K students while grades keep posting.
+// GpaRankIndex holds everyone (a GPA change is delete + reinsert by ID,
+// O(log n)); a small ordered set holds exactly the current top K. After each
+// change the set is repaired in O(log n): the changed student enters if it
+// beats the K-th entry, the weakest falls off, and a gap is filled with the
+// next best from the rank index. Reading the board never walks the big tree.
+
+// Immutable board row (safe to hand out while the board keeps changing)
+final class LeaderboardEntry {
+    final String name;
+    final int studentId;
+    final double gpa;
+
+    LeaderboardEntry(String name, int studentId, double gpa) {
+        this.name = name;
+        this.studentId = studentId;
+        this.gpa = gpa;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + gpa + ")";
+    }
+}
+
+class GpaLeaderboard {
+    // Best first: higher GPA, then higher ID (mirrors GpaRankIndex.selectBest)
+    private static final Comparator<LeaderboardEntry> BEST_FIRST =
+            Comparator.comparingDouble((LeaderboardEntry e) -> e.gpa)
+                    .thenComparingInt(e -> e.studentId)
+                    .reversed();
+
+    private final int capacity;
+    private final GpaRankIndex index = new GpaRankIndex();
+    private final TreeSet<LeaderboardEntry> board = new TreeSet<>(BEST_FIRST);
+    private final HashMap<Integer, LeaderboardEntry> onBoard = new HashMap<>();
+    private List<LeaderboardEntry> snapshot = Collections.emptyList();  // Rebuilt only when the board changes
+
+    public GpaLeaderboard(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // Add a student or post a new GPA for an existing one
+    public void postGrade(String name, int studentId, double gpa) {
+        detach(studentId);
+        index.insert(name, studentId, gpa);
+
+        LeaderboardEntry entry = new LeaderboardEntry(name, studentId, gpa);
+        if (!board.isEmpty() && BEST_FIRST.compare(entry, board.last()) < 0) {
+            board.add(entry);
+            onBoard.put(studentId, entry);
+            if (board.size() > capacity) {
+                onBoard.remove(board.pollLast().studentId);
+            }
+            snapshot = null;
+        }
+        refill();
+    }
+
+    // Student leaves (graduates, withdraws)
+    public boolean remove(int studentId) {
+        if (!index.contains(studentId)) return false;
+        detach(studentId);
+        refill();
+        return true;
+    }
+
+    // Current top K, best first (cached, unmodifiable)
+    public List<LeaderboardEntry> topK() {
+        if (snapshot == null) {
+            snapshot = Collections.unmodifiableList(new ArrayList<>(board));
+        }
+        return snapshot;
+    }
+
+    public boolean isOnBoard(int studentId) {
+        return onBoard.containsKey(studentId);
+    }
+
+    // GPA of the K-th place (what it takes to get on the board), or NaN if not full
+    public double cutoffGpa() {
+        return board.size() < capacity ? Double.NaN : board.last().gpa;
+    }
+
+    // Position among all students, 1 = best (-1 if unknown)
+    public int placeOf(int studentId) {
+        int rank = index.rank(studentId);
+        return (rank < 0) ? -1 : index.size() - rank;
+    }
+
+    // Take the student out of both structures; the board stays a prefix of the ranking
+    private void detach(int studentId) {
+        index.delete(studentId);
+        LeaderboardEntry entry = onBoard.remove(studentId);
+        if (entry != null) {
+            board.remove(entry);
+            snapshot = null;
+        }
+    }
+
+    // The board always holds the best board.size() students, so the next one is at that rank + 1
+    private void refill() {
+        while (board.size() < capacity && board.size() < index.size()) {
+            GpaRankNode next = index.selectBest(board.size() + 1);
+            LeaderboardEntry entry = new LeaderboardEntry(next.name, next.studentId, next.gpa);
+            board.add(entry);
+            onBoard.put(entry.studentId, entry);
+            snapshot = null;
+        }
+    }
+}
+
+// ========== STREAMING GPA QUANTILE SKETCH (KLL) ==========
+// Medians and p90s over millions of grades without keeping them all.
+// A KLL sketch is a stack of "compactors": level h holds values that each
+// stand for 2^h grades. When a level fills up it is sorted and every other
+// value (odd or even positions, by coin flip) moves up a level; the rest are
+// dropped. Capacities shrink by 2/3 per level below the top, so memory stays
+// about 3k values however many grades arrive, and rank error is roughly
+// 1.7% of n at k = 200 (99% confidence). Sketches for different shards
+// (majors, faculties, servers) merge level by level into one sketch.
+class GpaQuantileSketch {
+    private static final double SHRINK = 2.0 / 3.0;
+
+    private final int k;
+    private final Random random;
+    private double[][] levels = new double[1][];
+    private int[] counts = new int[1];
+    private int retained = 0;     // Values currently held across levels
+    private int maxRetained;      // Compress once retained reaches this
+    private long n = 0;           // Grades seen
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public GpaQuantileSketch() {
+        this(200, new Random());
+    }
+
+    // Larger k = smaller error and more memory; seed makes runs repeatable
+    public GpaQuantileSketch(int k, Random random) {
+        if (k < 8) throw new IllegalArgumentException("k must be at least 8: " + k);
+        this.k = k;
+        this.random = random;
+        levels[0] = new double[capacity(0) + 1];
+        maxRetained = capacity(0);
+    }
+
+    public void update(double gpa) {
+        if (n == 0 || gpa < min) min = gpa;
+        if (n == 0 || gpa > max) max = gpa;
+        n++;
+        append(0, gpa);
+        if (retained >= maxRetained) compress();
+    }
+
+    // Fold another shard's sketch into this one (the other is left unchanged)
+    public void merge(GpaQuantileSketch other) {
+        if (other.n == 0) return;
+        while (levels.length < other.levels.length) grow();
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.counts[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        min = (n == 0) ? other.min : Math.min(min, other.min);
+        max = (n == 0) ? other.max : Math.max(max, other.max);
+        n += other.n;
+        while (retained >= maxRetained) compress();
+    }
+
+    public long count() {
+        return n;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    // Values held in memory (the sketch's size, independent of count())
+    public int retainedValues() {
+        return retained;
+    }
+
+    // Estimated fraction of grades <= gpa
+    public double rank(double gpa) {
+        if (n == 0) return Double.NaN;
+        long weight = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < counts[h]; i++) {
+                if (levels[h][i] <= gpa) weight += 1L << h;
+            }
+        }
+        return (double) weight / n;
+    }
+
+    // Estimated GPA at fraction q (0.5 = median, 0.9 = p90)
+    public double quantile(double q) {
+        if (n == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        // Merge the sorted levels, accumulating weights until the target rank
+        double[][] sorted = new double[levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], counts[h]);
+            Arrays.sort(sorted[h]);
+        }
+        int[] position = new int[levels.length];
+        long target = (long) Math.ceil(q * n);
+        long cumulative = 0;
+        while (true) {
+            int best = -1;
+            for (int h = 0; h < sorted.length; h++) {
+                if (position[h] < sorted[h].length
+                        && (best == -1 || sorted[h][position[h]] < sorted[best][position[best]])) {
+                    best = h;
+                }
+            }
+            if (best == -1) break;
+            cumulative += 1L << best;
+            if (cumulative >= target) return sorted[best][position[best]];
+            position[best]++;
+        }
+        return max;
+    }
+
+    // Estimated grade counts per bucket: (-inf, b0], (b0, b1], ..., (b_last, +inf)
+    public long[] histogram(double[] boundaries) {
+        long[] buckets = new long[boundaries.length + 1];
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < counts[h]; i++) {
+                int bucket = Arrays.binarySearch(boundaries, levels[h][i]);
+                if (bucket < 0) bucket = -bucket - 1;
+                buckets[bucket] += 1L << h;
+            }
+        }
+        return buckets;
+    }
+
+    private int capacity(int h) {
+        int depth = levels.length - h - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(SHRINK, depth)));
+    }
+
+    private void append(int h, double value) {
+        if (counts[h] == levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], levels[h].length * 2);
+        }
+        levels[h][counts[h]++] = value;
+        retained++;
+    }
+
+    private void grow() {
+        int height = levels.length + 1;
+        levels = Arrays.copyOf(levels, height);
+        counts = Arrays.copyOf(counts, height);
+        levels[height - 1] = new double[capacity(height - 1) + 1];
+        maxRetained = 0;
+        for (int h = 0; h < height; h++) maxRetained += capacity(h);
+    }
+
+    // Compact the lowest full level into the one above it
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (counts[h] < capacity(h)) continue;
+            if (h + 1 == levels.length) grow();
+
+            double[] level = levels[h];
+            int size = counts[h];
+            Arrays.sort(level, 0, size);
+            int leftover = size % 2;  // With an odd count the smallest value stays at level h
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = leftover + offset; i < size; i += 2) {
+                append(h + 1, level[i]);
+            }
+            retained -= size - leftover;
+            counts[h] = leftover;
+            return;
+        }
+    }
+}
+
+// Node for AVL Tree
+class AVLNode {
+    String name;
+    int studentId;
+    int height;
+    AVLNode left;
+    AVLNode right;
+
+    public AVLNode(String name, int studentId) {
+        this.name = name;
+        this.studentId = studentId;
+        this.height = 1;  // New node is at height 1
+        this.left = null;
+        this.right = null;
+    }
+}
+
+// AVL Tree (Self-balancing BST) for Students by ID
+class StudentAVL {
+    private static final int MAX_PATH = 64;  // AVL height stays below 1.45 * log2(n)
+
+    private AVLNode root;
+
+    public StudentAVL() {
+        this.root = null;
+    }
+
+    // Get height of node
+    private int height(AVLNode node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    // Calculate balance factor (difference between left and right subtree heights)
+    private int getBalance(AVLNode node) {
+        return (node == null) ? 0 : height(node.left) - height(node.right);
+    }
+
+    // Update height of node
+    private void updateHeight(AVLNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    // Right rotation (for Left-Left imbalance)
+    private AVLNode rotateRight(AVLNode y) {
+        AVLNode x = rotateRightSilent(y);
+        System.out.println("  → Right rotation performed");
+        return x;
+    }
+
+    private AVLNode rotateRightSilent(AVLNode y) {
+        AVLNode x = y.left;
+        AVLNode T2 = x.right;
+
+        // Perform rotation
+        x.right = y;
+        y.left = T2;
+
+        // Update heights
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    // Left rotation (for Right-Right imbalance)
+    private AVLNode rotateLeft(AVLNode x) {
+        AVLNode y = rotateLeftSilent(x);
+        System.out.println("  → Left rotation performed");
+        return y;
+    }
+
+    private AVLNode rotateLeftSilent(AVLNode x) {
+        AVLNode y = x.right;
+        AVLNode T2 = y.left;
+
+        // Perform rotation
+        y.left = x;
+        x.right = T2;
+
+        // Update heights
+        updateHeight(x);
+        updateHeight(y);
+        return y;
+    }
+
+    // Insert student and balance tree
+    public void insert(String name, int studentId) {
+        root = insertRecursive(root, name, studentId);
+        System.out.println("✓ Inserted: " + name + " (ID: " + studentId + ")");
+    }
+
+    private AVLNode insertRecursive(AVLNode node, String name, int studentId) {
+        // Standard BST insertion
+        if (node == null) {
+            return new AVLNode(name, studentId);
+        }
+
+        if (studentId < node.studentId) {
+            node.left = insertRecursive(node.left, name, studentId);
+        } else if (studentId > node.studentId) {
+            node.right = insertRecursive(node.right, name, studentId);
+        } else {
+            return node;  // Duplicate IDs not allowed
+        }
+
+        // Update height
+        updateHeight(node);
+
+        // Get balance factor
+        int balance = getBalance(node);
+
+        // Check for imbalance conditions and rotate
+
+        // Left-Left case (balance factor > 1 and new node in left subtree)
+        if (balance > 1 && studentId < node.left.studentId) {
+            System.out.println("  ⚖ Left-Left imbalance detected");
+            return rotateRight(node);
+        }
+
+        // Right-Right case (balance factor < -1 and new node in right subtree)
+        if (balance < -1 && studentId > node.right.studentId) {
+            System.out.println("  ⚖ Right-Right imbalance detected");
+            return rotateLeft(node);
+        }
+
+        // Left-Right case (balance factor > 1 and new node in right of left subtree)
+        if (balance > 1 && studentId > node.left.studentId) {
+            System.out.println("  ⚖ Left-Right imbalance detected");
+            node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+
+        // Right-Left case (balance factor < -1 and new node in left of right subtree)
+        if (balance < -1 && studentId < node.right.studentId) {
+            System.out.println("  ⚖ Right-Left imbalance detected");
+            node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    // In-order traversal
+    public void inOrderTraversal() {
+        System.out.println("\n=== Students by ID (Sorted) ===");
+        inOrderRecursive(root);
+    }
+
+    private void inOrderRecursive(AVLNode node) {
+        if (node != null) {
+            inOrderRecursive(node.left);
+            System.out.println("ID: " + node.studentId + " - " + node.name +
+                    " (Height: " + node.height + ", Balance: " + getBalance(node) + ")");
+            inOrderRecursive(node.right);
+        }
+    }
+
+    // Display tree structure (for visualization)
+    public void displayTreeStructure() {
+        System.out.println("\n=== Tree Structure ===");
+        displayStructureRecursive(root, "", true);
+    }
+
+    private void displayStructureRecursive(AVLNode node, String prefix, boolean isLeft) {
+        if (node != null) {
+            System.out.println(prefix + (isLeft ? "├── " : "└── ") +
+                    node.studentId + " (" + node.name + ") [BF: " + getBalance(node) + "]");
+            if (node.left != null || node.right != null) {
+                if (node.left != null) {
+                    displayStructureRecursive(node.left, prefix + (isLeft ? "│   " : "    "), true);
+                }
+                if (node.right != null) {
+                    displayStructureRecursive(node.right, prefix + (isLeft ? "│   " : "    "), false);
+                }
+            }
+        }
+    }
+
+    // ===== Bulk loading =====
+    // Building from sorted input: the middle student becomes the root, and each
+    // half is built the same way. Every node is created once, no rotations: O(n).
+
+    // Replace the tree with the given students (sorted by ID or not)
+    public void bulkLoad(int[] studentIds, String[] names) {
+        int[] order = sortedUniqueOrder(studentIds);
+        int count = order.length;
+        int[] ids = new int[count];
+        String[] sortedNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = studentIds[order[i]];
+            sortedNames[i] = names[order[i]];
+        }
+        root = buildBalanced(ids, sortedNames, 0, count - 1);
+    }
+
+    // Merge a batch into the existing tree (IDs already in the tree keep their
+    // current name, like insert). Small batches go through put() in O(m log n);
+    // once m * height reaches the tree size, flatten, merge and rebuild in O(n + m).
+    public void mergeBatch(int[] studentIds, String[] names) {
+        int h = height(root);
+        if ((long) studentIds.length * h < minNodesForHeight(h)) {
+            for (int i = 0; i < studentIds.length; i++) {
+                put(studentIds[i], names[i]);
+            }
+            return;
+        }
+
+        int[] order = sortedUniqueOrder(studentIds);
+        int batchCount = order.length;
+
+        int treeCount = countNodes(root);
+        int[] treeIds = new int[treeCount];
+        String[] treeNames = new String[treeCount];
+        flatten(root, treeIds, treeNames, new int[1]);
+
+        int[] ids = new int[treeCount + batchCount];
+        String[] mergedNames = new String[ids.length];
+        int i = 0, j = 0, k = 0;
+        while (i < treeCount || j < batchCount) {
+            int batchId = (j < batchCount) ? studentIds[order[j]] : 0;
+            if (j == batchCount || (i < treeCount && treeIds[i] <= batchId)) {
+                if (j < batchCount && treeIds[i] == batchId) j++;  // Duplicate: keep tree entry
+                ids[k] = treeIds[i];
+                mergedNames[k++] = treeNames[i++];
+            } else {
+                ids[k] = batchId;
+                mergedNames[k++] = names[order[j++]];
+            }
+        }
+        root = buildBalanced(ids, mergedNames, 0, k - 1);
+    }
+
+    // Fewest nodes an AVL tree of height h can hold: N(h) = N(h-1) + N(h-2) + 1.
+    // A lower bound on size() that costs O(h) instead of a full walk.
+    private static long minNodesForHeight(int h) {
+        long previous = 0, current = (h > 0) ? 1 : 0;
+        for (int i = 2; i <= h; i++) {
+            long next = current + previous + 1;
+            previous = current;
+            current = next;
+        }
+        return current;
+    }
+
+    private AVLNode buildBalanced(int[] ids, String[] names, int low, int high) {
+        if (low > high) return null;
+
+        int mid = (low + high) >>> 1;
+        AVLNode node = new AVLNode(names[mid], ids[mid]);
+        node.left = buildBalanced(ids, names, low, mid - 1);
+        node.right = buildBalanced(ids, names, mid + 1, high);
+        updateHeight(node);
+        return node;
+    }
+
+    // Indexes of the input in ID order, keeping only the first copy of each ID
+    private int[] sortedUniqueOrder(int[] ids) {
+        int n = ids.length;
+        int[] order = new int[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            if (i > 0 && ids[i] < ids[i - 1]) sorted = false;
+        }
+
+        if (!sorted) {
+            // Sort (id, index) pairs packed into longs; equal IDs stay in input order
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) {
+                packed[i] = ((long) ids[i] << 32) | i;
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < n; i++) {
+                order[i] = (int) packed[i];
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (count == 0 || ids[order[i]] != ids[order[count - 1]]) {
+                order[count++] = order[i];
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    private int countNodes(AVLNode node) {
+        return (node == null) ? 0 : 1 + countNodes(node.left) + countNodes(node.right);
+    }
+
+    private void flatten(AVLNode node, int[] ids, String[] names, int[] position) {
+        if (node == null) return;
+        flatten(node.left, ids, names, position);
+        ids[position[0]] = node.studentId;
+        names[position[0]++] = node.name;
+        flatten(node.right, ids, names, position);
+    }
+
+    // ===== Iterative, silent updates =====
+    // put/delete walk down once, remembering the path in an array (the "parent
+    // stack"), then walk back up rebalancing. They stop as soon as a subtree's
+    // height comes out unchanged, because nothing above it can be affected.
+
+    // Find student by ID (null if absent)
+    public AVLNode search(int studentId) {
+        AVLNode current = root;
+        while (current != null && current.studentId != studentId) {
+            current = (studentId < current.studentId) ? current.left : current.right;
+        }
+        return current;
+    }
+
+    // Insert without console output (false if the ID already exists)
+    public boolean put(int studentId, String name) {
+        if (root == null) {
+            root = new AVLNode(name, studentId);
+            return true;
+        }
+
+        AVLNode[] path = new AVLNode[MAX_PATH];
+        int depth = 0;
+        AVLNode current = root;
+        while (current != null) {
+            if (studentId == current.studentId) return false;  // Duplicate IDs not allowed
+            path[depth++] = current;
+            current = (studentId < current.studentId) ? current.left : current.right;
+        }
+
+        AVLNode parent = path[depth - 1];
+        if (studentId < parent.studentId) {
+            parent.left = new AVLNode(name, studentId);
+        } else {
+            parent.right = new AVLNode(name, studentId);
+        }
+        rebalancePath(path, depth);
+        return true;
+    }
+
+    // Rename a student (false if the ID is not registered)
+    public boolean update(int studentId, String name) {
+        AVLNode node = search(studentId);
+        if (node == null) return false;
+        node.name = name;
+        return true;
+    }
+
+    // Remove a withdrawn student (false if the ID is not registered)
+    public boolean delete(int studentId) {
+        AVLNode[] path = new AVLNode[MAX_PATH];
+        int depth = 0;
+        AVLNode current = root;
+        while (current != null && current.studentId != studentId) {
+            path[depth++] = current;
+            current = (studentId < current.studentId) ? current.left : current.right;
+        }
+        if (current == null) return false;
+
+        AVLNode target = current;
+        if (target.left != null && target.right != null) {
+            // Two children: move the in-order successor's data up, then unlink the successor
+            path[depth++] = target;
+            AVLNode successor = target.right;
+            while (successor.left != null) {
+                path[depth++] = successor;
+                successor = successor.left;
+            }
+            target.studentId = successor.studentId;
+            target.name = successor.name;
+            target = successor;
+        }
+
+        // target now has at most one child
+        AVLNode child = (target.left != null) ? target.left : target.right;
+        if (depth == 0) {
+            root = child;
+        } else if (path[depth - 1].left == target) {
+            path[depth - 1].left = child;
+        } else {
+            path[depth - 1].right = child;
+        }
+        rebalancePath(path, depth);
+        return true;
+    }
+
+    // Number of students (walks the tree)
+    public int size() {
+        return countNodes(root);
+    }
+
+    // Fix heights and balance from path[depth - 1] up to the root
+    private void rebalancePath(AVLNode[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            AVLNode node = path[i];
+            int oldHeight = node.height;
+            AVLNode subtree = rebalanceSilent(node);
+
+            if (subtree != node) {
+                if (i == 0) root = subtree;
+                else if (path[i - 1].left == node) path[i - 1].left = subtree;
+                else path[i - 1].right = subtree;
+            }
+            if (subtree.height == oldHeight) return;  // Ancestors are unaffected
+        }
+    }
+
+    private AVLNode rebalanceSilent(AVLNode node) {
+        updateHeight(node);
+        int balance = getBalance(node);
+
+        if (balance > 1) {
+            if (getBalance(node.left) < 0) {
+                node.left = rotateLeftSilent(node.left);  // Left-Right case
+            }
+            return rotateRightSilent(node);
+        }
+        if (balance < -1) {
+            if (getBalance(node.right) > 0) {
+                node.right = rotateRightSilent(node.right);  // Right-Left case
+            }
+            return rotateLeftSilent(node);
+        }
+        return node;
+    }
+
+    // Check every node's stored height and balance factor (O(n))
+    public boolean isBalanced() {
+        return checkHeights(root) != -1;
+    }
+
+    private int checkHeights(AVLNode node) {
+        if (node == null) return 0;
+        int left = checkHeights(node.left);
+        int right = checkHeights(node.right);
+        if (left == -1 || right == -1 || Math.abs(left - right) > 1) return -1;
+        int height = 1 + Math.max(left, right);
+        return (height == node.height) ? height : -1;
+    }
+
+    // Read-only, cache-friendly copy of the current tree (see EytzingerSnapshot)
+    public EytzingerSnapshot freeze() {
+        int count = countNodes(root);
+        int[] ids = new int[count];
+        String[] names = new String[count];
+        flatten(root, ids, names, new int[1]);
+        return new EytzingerSnapshot(ids, names);
+    }
+
+    // Lazy traversal in the given order (stops as soon as the caller does)
+    public Iterator<AVLNode> iterator(TraversalOrder order) {
+        return new BinaryTreeIterator<>(root, order, n -> n.left, n -> n.right);
+    }
+
+    // Stream of nodes; parallel streams split the work by subtree
+    public Stream<AVLNode> stream(TraversalOrder order, boolean parallel) {
+        return StreamSupport.stream(
+                new BinaryTreeSpliterator<>(root, (root == null) ? 0 : (1L << root.height) - 1, order, n -> n.left, n -> n.right), parallel);
+    }
+}
+
+// ========== DISK-BACKED B+TREE (STUDENT ID INDEX) ==========
+// For registries larger than memory (alumni included). All records live in a
+// file of fixed 4 KB pages; only a bounded number of pages are held at once.
+//   Page 0       header: magic, root page, page count, record count
+//   Leaf page    sorted (studentId, name) slots + link to the next leaf
+//   Internal     child0, key1, child1, key2, child2 ... (key i = first id of child i)
+// The file is memory-mapped in 1 MB segments; the OS pages them in and out.
+// Pages in use are copied into a fixed number of buffer pool frames. When the
+// pool is full, the CLOCK algorithm picks a victim: the hand sweeps the frames,
+// clearing "recently used" bits, and evicts the first unpinned frame whose bit
+// is already clear (dirty frames are copied back into the mapping first).
+// Deletes remove the slot but don't merge underfull leaves, which keeps every
+// operation to one root-to-leaf path.
+
+class StudentBPlusTree implements Closeable {
+    static final int PAGE_SIZE = 4096;
+    private static final int PAGES_PER_SEGMENT = 256;  // 1 MB mapped at a time
+    static final int MAX_NAME_BYTES = 59;
+
+    private static final int MAGIC = 0x42505431;  // "BPT1"
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int NODE_HEADER = 16;
+    private static final int LEAF_SLOT = 64;      // key (4) + length (1) + name (59)
+    private static final int LEAF_CAPACITY = (PAGE_SIZE - NODE_HEADER) / LEAF_SLOT;
+    private static final int INTERNAL_CAPACITY = (PAGE_SIZE - NODE_HEADER - 4) / 8;
+
+    private final FileChannel channel;
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    private final BufferPool pool;
+    private int rootPage;
+    private int pageCount;
+    private int recordCount;
+
+    public StudentBPlusTree(Path file, int poolPages) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pool = new BufferPool(Math.max(poolPages, 8));
+
+        if (channel.size() == 0) {
+            pageCount = 1;  // Header
+            rootPage = allocate(LEAF);
+            recordCount = 0;
+            writeHeader();
+        } else {
+            ByteBuffer header = pool.pin(0);
+            if (header.getInt(0) != MAGIC) {
+                pool.unpin(0);
+                throw new IOException("Not a student B+Tree file: " + file);
+            }
+            rootPage = header.getInt(4);
+            pageCount = header.getInt(8);
+            recordCount = header.getInt(12);
+            pool.unpin(0);
+        }
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    // Name for studentId, or null
+    public String get(int studentId) throws IOException {
+        int leaf = findLeaf(studentId);
+        ByteBuffer page = pool.pin(leaf);
+        try {
+            int slot = searchLeaf(page, studentId);
+            return slot >= 0 ? readName(page, slot) : null;
+        } finally {
+            pool.unpin(leaf);
+        }
+    }
+
+    // Insert or replace a student
+    public void insert(int studentId, String name) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name longer than " + MAX_NAME_BYTES + " bytes: " + name);
+        }
+
+        int[] split = insertRecursive(rootPage, studentId, nameBytes);
+        if (split != null) {
+            // Root split: grow the tree by one level
+            int newRoot = allocate(INTERNAL);
+            ByteBuffer page = pool.pin(newRoot);
+            page.putShort(2, (short) 1);
+            page.putInt(NODE_HEADER, rootPage);
+            page.putInt(NODE_HEADER + 4, split[0]);
+            page.putInt(NODE_HEADER + 8, split[1]);
+            pool.unpinDirty(newRoot);
+            rootPage = newRoot;
+        }
+        writeHeader();
+    }
+
+    // Remove a student (false if not present)
+    public boolean delete(int studentId) throws IOException {
+        int leaf = findLeaf(studentId);
+        ByteBuffer page = pool.pin(leaf);
+        try {
+            int slot = searchLeaf(page, studentId);
+            if (slot < 0) return false;
+
+            int count = page.getShort(2);
+            copySlots(page, slot + 1, page, slot, count - slot - 1);
+            page.putShort(2, (short) (count - 1));
+            pool.markDirty(leaf);
+        } finally {
+            pool.unpin(leaf);
+        }
+        recordCount--;
+        writeHeader();
+        return true;
+    }
+
+    // All students with minId <= id <= maxId, in ID order, following the leaf chain
+    public List<Map.Entry<Integer, String>> rangeScan(int minId, int maxId) throws IOException {
+        List<Map.Entry<Integer, String>> result = new ArrayList<>();
+        int leaf = findLeaf(minId);
+
+        while (leaf != -1) {
+            ByteBuffer page = pool.pin(leaf);
+            int next;
+            try {
+                int count = page.getShort(2);
+                for (int slot = 0; slot < count; slot++) {
+                    int key = page.getInt(slotOffset(slot));
+                    if (key > maxId) return result;
+                    if (key >= minId) result.add(new AbstractMap.SimpleEntry<>(key, readName(page, slot)));
+                }
+                next = page.getInt(4);
+            } finally {
+                pool.unpin(leaf);
+            }
+            leaf = next;
+        }
+        return result;
+    }
+
+    // Write back every dirty page and close the file
+    @Override
+    public void close() throws IOException {
+        writeHeader();
+        pool.flushAll();
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) segment.force();
+        }
+        channel.close();
+    }
+
+    // Returns {separator, newPage} when the child split, otherwise null
+    private int[] insertRecursive(int pageId, int key, byte[] name) throws IOException {
+        ByteBuffer page = pool.pin(pageId);
+        try {
+            int count = page.getShort(2);
+
+            if (page.get(0) == LEAF) {
+                int slot = searchLeaf(page, key);
+                if (slot >= 0) {
+                    writeSlot(page, slot, key, name);  // Replace existing name
+                    pool.markDirty(pageId);
+                    return null;
+                }
+                recordCount++;
+                int position = -(slot + 1);
+                if (count < LEAF_CAPACITY) {
+                    copySlots(page, position, page, position + 1, count - position);
+                    writeSlot(page, position, key, name);
+                    page.putShort(2, (short) (count + 1));
+                    pool.markDirty(pageId);
+                    return null;
+                }
+                return splitLeaf(pageId, page, position, key, name);
+            }
+
+            // Internal: child i covers keys in [key i, key i+1)
+            int child = childIndex(page, key);
+            int[] split = insertRecursive(page.getInt(childOffset(child)), key, name);
+            if (split == null) return null;
+
+            if (count < INTERNAL_CAPACITY) {
+                insertIntoInternal(page, count, child, split[0], split[1]);
+                pool.markDirty(pageId);
+                return null;
+            }
+            return splitInternal(pageId, page, count, child, split[0], split[1]);
+        } finally {
+            pool.unpin(pageId);
+        }
+    }
+
+    private int[] splitLeaf(int pageId, ByteBuffer page, int position, int key, byte[] name)
+            throws IOException {
+        int rightId = allocate(LEAF);
+        ByteBuffer right = pool.pin(rightId);
+        try {
+            int total = LEAF_CAPACITY + 1;
+            int leftCount = total / 2;
+
+            // Lay out the full sorted sequence across both pages
+            if (position < leftCount) {
+                copySlots(page, leftCount - 1, right, 0, LEAF_CAPACITY - leftCount + 1);
+                copySlots(page, position, page, position + 1, leftCount - 1 - position);
+                writeSlot(page, position, key, name);
+            } else {
+                int rightPosition = position - leftCount;
+                copySlots(page, leftCount, right, 0, rightPosition);
+                writeSlot(right, rightPosition, key, name);
+                copySlots(page, position, right, rightPosition + 1, LEAF_CAPACITY - position);
+            }
+            page.putShort(2, (short) leftCount);
+            right.putShort(2, (short) (total - leftCount));
+
+            right.putInt(4, page.getInt(4));  // Link into the leaf chain
+            page.putInt(4, rightId);
+            pool.markDirty(pageId);
+            pool.markDirty(rightId);
+            return new int[]{right.getInt(slotOffset(0)), rightId};
+        } finally {
+            pool.unpin(rightId);
+        }
+    }
+
+    private void insertIntoInternal(ByteBuffer page, int count, int child, int separator, int newPage) {
+        // Shift (key, child) pairs after position child one step right
+        for (int i = count; i > child; i--) {
+            page.putInt(keyOffset(i), page.getInt(keyOffset(i - 1)));
+            page.putInt(childOffset(i + 1), page.getInt(childOffset(i)));
+        }
+        page.putInt(keyOffset(child), separator);
+        page.putInt(childOffset(child + 1), newPage);
+        page.putShort(2, (short) (count + 1));
+    }
+
+    private int[] splitInternal(int pageId, ByteBuffer page, int count, int child,
+                                int separator, int newPage) throws IOException {
+        // Gather keys/children with the new entry in place
+        int[] keys = new int[count + 1];
+        int[] children = new int[count + 2];
+        children[0] = page.getInt(childOffset(0));
+        for (int i = 0, k = 0; i < count; i++, k++) {
+            if (i == child) {
+                keys[k] = separator;
+                children[++k] = newPage;
+            }
+            keys[k] = page.getInt(keyOffset(i));
+            children[k + 1] = page.getInt(childOffset(i + 1));
+        }
+        if (child == count) {
+            keys[count] = separator;
+            children[count + 1] = newPage;
+        }
+
+        int middle = keys.length / 2;  // Pushed up, not kept in either half
+        int rightId = allocate(INTERNAL);
+        ByteBuffer right = pool.pin(rightId);
+        try {
+            page.putShort(2, (short) middle);
+            page.putInt(childOffset(0), children[0]);
+            for (int i = 0; i < middle; i++) {
+                page.putInt(keyOffset(i), keys[i]);
+                page.putInt(childOffset(i + 1), children[i + 1]);
+            }
+
+            int rightCount = keys.length - middle - 1;
+            right.putShort(2, (short) rightCount);
+            right.putInt(childOffset(0), children[middle + 1]);
+            for (int i = 0; i < rightCount; i++) {
+                right.putInt(keyOffset(i), keys[middle + 1 + i]);
+                right.putInt(childOffset(i + 1), children[middle + 2 + i]);
+            }
+            pool.markDirty(pageId);
+            pool.markDirty(rightId);
+            return new int[]{keys[middle], rightId};
+        } finally {
+            pool.unpin(rightId);
+        }
+    }
+
+    private int findLeaf(int key) throws IOException {
+        int pageId = rootPage;
+        while (true) {
+            ByteBuffer page = pool.pin(pageId);
+            int child;
+            try {
+                if (page.get(0) == LEAF) return pageId;
+                child = page.getInt(childOffset(childIndex(page, key)));
+            } finally {
+                pool.unpin(pageId);
+            }
+            pageId = child;
+        }
+    }
+
+    // Child to follow: number of separator keys <= key
+    private int childIndex(ByteBuffer page, int key) {
+        int low = 0, high = page.getShort(2);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (page.getInt(keyOffset(mid)) <= key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Slot of key, or -(insertion point + 1)
+    private int searchLeaf(ByteBuffer page, int key) {
+        int low = 0, high = page.getShort(2) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midKey = page.getInt(slotOffset(mid));
+            if (midKey < key) low = mid + 1;
+            else if (midKey > key) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    private static int slotOffset(int slot) {
+        return NODE_HEADER + slot * LEAF_SLOT;
+    }
+
+    private static int childOffset(int i) {
+        return NODE_HEADER + i * 8;
+    }
+
+    private static int keyOffset(int i) {
+        return NODE_HEADER + 4 + i * 8;
+    }
+
+    private static void writeSlot(ByteBuffer page, int slot, int key, byte[] name) {
+        int offset = slotOffset(slot);
+        page.putInt(offset, key);
+        page.put(offset + 4, (byte) name.length);
+        for (int i = 0; i < name.length; i++) {
+            page.put(offset + 5 + i, name[i]);
+        }
+    }
+
+    private static String readName(ByteBuffer page, int slot) {
+        int offset = slotOffset(slot);
+        byte[] name = new byte[page.get(offset + 4)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = page.get(offset + 5 + i);
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    // Move count slots (overlap-safe when source and target are the same page)
+    private static void copySlots(ByteBuffer from, int fromSlot, ByteBuffer to, int toSlot, int count) {
+        if (count <= 0) return;
+        int bytes = count * LEAF_SLOT;
+        int src = slotOffset(fromSlot), dst = slotOffset(toSlot);
+        if (from == to && dst > src) {
+            for (int i = bytes - 1; i >= 0; i--) to.put(dst + i, from.get(src + i));
+        } else {
+            for (int i = 0; i < bytes; i++) to.put(dst + i, from.get(src + i));
+        }
+    }
+
+    private int allocate(byte type) throws IOException {
+        int pageId = pageCount++;
+        ByteBuffer page = pool.pin(pageId);
+        page.put(0, type);
+        page.putShort(2, (short) 0);
+        page.putInt(4, -1);  // No next leaf
+        pool.unpinDirty(pageId);
+        return pageId;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = pool.pin(0);
+        header.putInt(0, MAGIC);
+        header.putInt(4, rootPage);
+        header.putInt(8, pageCount);
+        header.putInt(12, recordCount);
+        pool.unpinDirty(0);
+    }
+
+    // Mapped region holding a page (mapping the segment on first use)
+    private MappedByteBuffer segmentFor(int pageId) throws IOException {
+        int index = pageId / PAGES_PER_SEGMENT;
+        while (segments.size() <= index) segments.add(null);
+        if (segments.get(index) == null) {
+            long segmentBytes = (long) PAGES_PER_SEGMENT * PAGE_SIZE;
+            segments.set(index, channel.map(FileChannel.MapMode.READ_WRITE,
+                    index * segmentBytes, segmentBytes));
+        }
+        return segments.get(index);
+    }
+
+    // Fixed number of page frames with CLOCK replacement
+    private class BufferPool {
+        private final int[] framePage;
+        private final ByteBuffer[] frames;
+        private final int[] pinCount;
+        private final boolean[] referenced;
+        private final boolean[] dirty;
+        private final HashMap<Integer, Integer> pageTable = new HashMap<>();
+        private int hand = 0;
+
+        BufferPool(int capacity) {
+            framePage = new int[capacity];
+            Arrays.fill(framePage, -1);
+            frames = new ByteBuffer[capacity];
+            for (int frame = 0; frame < capacity; frame++) {
+                frames[frame] = ByteBuffer.allocate(PAGE_SIZE);
+            }
+            pinCount = new int[capacity];
+            referenced = new boolean[capacity];
+            dirty = new boolean[capacity];
+        }
+
+        // Load the page into a frame (if needed) and keep it there until unpinned
+        ByteBuffer pin(int pageId) throws IOException {
+            Integer frame = pageTable.get(pageId);
+            if (frame == null) {
+                frame = victim();
+                ByteBuffer mapped = segmentFor(pageId).duplicate();
+                mapped.position((pageId % PAGES_PER_SEGMENT) * PAGE_SIZE);
+                mapped.get(frames[frame].array(), 0, PAGE_SIZE);
+                framePage[frame] = pageId;
+                pageTable.put(pageId, frame);
+            }
+            pinCount[frame]++;
+            referenced[frame] = true;
+            return frames[frame];
+        }
+
+        void unpin(int pageId) {
+            pinCount[pageTable.get(pageId)]--;
+        }
+
+        void unpinDirty(int pageId) {
+            markDirty(pageId);
+            unpin(pageId);
+        }
+
+        void markDirty(int pageId) {
+            dirty[pageTable.get(pageId)] = true;
+        }
+
+        private int victim() throws IOException {
+            for (int sweeps = 0; sweeps < 2 * frames.length + 1; sweeps++) {
+                int frame = hand;
+                hand = (hand + 1) % frames.length;
+
+                if (framePage[frame] == -1) return frame;  // Free frame
+                if (pinCount[frame] > 0) continue;
+                if (referenced[frame]) {
+                    referenced[frame] = false;  // Second chance
+                    continue;
+                }
+                writeBack(frame);
+                pageTable.remove(framePage[frame]);
+                framePage[frame] = -1;
+                return frame;
+            }
+            throw new IllegalStateException("Every buffer pool frame is pinned");
+        }
+
+        private void writeBack(int frame) throws IOException {
+            if (!dirty[frame]) return;
+            int pageId = framePage[frame];
+            ByteBuffer mapped = segmentFor(pageId).duplicate();
+            mapped.position((pageId % PAGES_PER_SEGMENT) * PAGE_SIZE);
+            mapped.put(frames[frame].array(), 0, PAGE_SIZE);
+            dirty[frame] = false;
+        }
+
+        void flushAll() throws IOException {
+            for (int frame = 0; frame < frames.length; frame++) {
+                if (framePage[frame] != -1) writeBack(frame);
+            }
+        }
+    }
+}
+
+// ========== CONCURRENT STUDENT INDEX (LAZY SKIP LIST) ==========
+// For registration traffic from many threads at once. A skip list is a sorted
+// linked list with extra "express lanes": each node is in level 0 and, with
+// probability 1/2 per level, in the levels above, so searches skip ahead in
+// O(log n) expected steps without any rebalancing.
+// Lazy synchronisation (Herlihy & Shavit):
+//   - get() and rangeScan() never lock; they only follow next pointers and skip
+//     nodes that are "marked" (being removed) or not yet "fully linked"
+//   - put() and remove() lock just the predecessor nodes they change, check
+//     those are still valid, and retry from the top if not
+// Keys are plain ints; Integer.MIN_VALUE and MAX_VALUE are used by the sentinels.
+
+class ConcurrentStudentIndex {
+    private static final int MAX_LEVEL = 31;
+
+    private static class Node {
+        final int studentId;
+        volatile String name;
+        final AtomicReferenceArray<Node> next;
+        final int topLevel;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile boolean marked = false;       // Logically removed
+        volatile boolean fullyLinked = false;  // Linked at every level
+
+        Node(int studentId, String name, int topLevel) {
+            this.studentId = studentId;
+            this.name = name;
+            this.topLevel = topLevel;
+            this.next = new AtomicReferenceArray<>(topLevel + 1);
+        }
+    }
+
+    private final Node head = new Node(Integer.MIN_VALUE, null, MAX_LEVEL);
+    private final Node tail = new Node(Integer.MAX_VALUE, null, MAX_LEVEL);
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ConcurrentStudentIndex() {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            head.next.set(level, tail);
+        }
+        head.fullyLinked = true;
+        tail.fullyLinked = true;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Lock-free lookup (null if absent)
+    public String get(int studentId) {
+        Node pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            Node current = pred.next.get(level);
+            while (current.studentId < studentId) {
+                pred = current;
+                current = pred.next.get(level);
+            }
+            if (current.studentId == studentId) {
+                return (current.fullyLinked && !current.marked) ? current.name : null;
+            }
+        }
+        return null;
+    }
+
+    // Insert, or replace the name if the ID exists (true if newly inserted)
+    public boolean put(int studentId, String name) {
+        checkKey(studentId);
+        int topLevel = randomLevel();
+        Node[] preds = new Node[MAX_LEVEL + 1];
+        Node[] succs = new Node[MAX_LEVEL + 1];
+
+        while (true) {
+            int levelFound = find(studentId, preds, succs);
+            if (levelFound != -1) {
+                Node found = succs[levelFound];
+                if (!found.marked) {
+                    while (!found.fullyLinked) {
+                        Thread.onSpinWait();  // Another put is finishing the links
+                    }
+                    found.name = name;
+                    return false;
+                }
+                continue;  // Being removed: retry once it is gone
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    preds[level].lock.lock();
+                    highestLocked = level;
+                    valid = !preds[level].marked && !succs[level].marked &&
+                            preds[level].next.get(level) == succs[level];
+                }
+                if (!valid) continue;
+
+                Node node = new Node(studentId, name, topLevel);
+                for (int level = 0; level <= topLevel; level++) {
+                    node.next.set(level, succs[level]);
+                }
+                for (int level = 0; level <= topLevel; level++) {
+                    preds[level].next.set(level, node);
+                }
+                node.fullyLinked = true;  // Now visible to readers
+                size.incrementAndGet();
+                return true;
+            } finally {
+                for (int level = 0; level <= highestLocked; level++) {
+                    preds[level].lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Remove a student (false if absent)
+    public boolean remove(int studentId) {
+        Node[] preds = new Node[MAX_LEVEL + 1];
+        Node[] succs = new Node[MAX_LEVEL + 1];
+        Node victim = null;
+        boolean isMarked = false;
+        int topLevel = -1;
+
+        while (true) {
+            int levelFound = find(studentId, preds, succs);
+            if (levelFound != -1) victim = succs[levelFound];
+
+            boolean removable = levelFound != -1 && victim.fullyLinked &&
+                    victim.topLevel == levelFound && !victim.marked;
+            if (!isMarked && !removable) return false;
+
+            if (!isMarked) {
+                topLevel = victim.topLevel;
+                victim.lock.lock();
+                if (victim.marked) {
+                    victim.lock.unlock();
+                    return false;  // Someone else removed it first
+                }
+                victim.marked = true;  // Logical removal: readers skip it from now on
+                isMarked = true;
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    preds[level].lock.lock();
+                    highestLocked = level;
+                    valid = !preds[level].marked && preds[level].next.get(level) == victim;
+                }
+                if (!valid) continue;
+
+                for (int level = topLevel; level >= 0; level--) {
+                    preds[level].next.set(level, victim.next.get(level));
+                }
+                victim.lock.unlock();
+                size.decrementAndGet();
+                return true;
+            } finally {
+                for (int level = 0; level <= highestLocked; level++) {
+                    preds[level].lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Students with minId <= id <= maxId in ID order. Never locks; entries added
+    // or removed during the scan may or may not appear.
+    public List<Map.Entry<Integer, String>> rangeScan(int minId, int maxId) {
+        List<Map.Entry<Integer, String>> result = new ArrayList<>();
+        Node pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            Node current = pred.next.get(level);
+            while (current.studentId < minId) {
+                pred = current;
+                current = pred.next.get(level);
+            }
+        }
+
+        Node current = pred.next.get(0);
+        while (current != tail && current.studentId <= maxId) {
+            if (current.fullyLinked && !current.marked && current.studentId >= minId) {
+                String name = current.name;
+                result.add(new AbstractMap.SimpleEntry<>(current.studentId, name));
+            }
+            current = current.next.get(0);
+        }
+        return result;
+    }
+
+    // Fills preds/succs per level; returns the highest level holding the ID, or -1
+    private int find(int studentId, Node[] preds, Node[] succs) {
+        int levelFound = -1;
+        Node pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            Node current = pred.next.get(level);
+            while (current.studentId < studentId) {
+                pred = current;
+                current = pred.next.get(level);
+            }
+            if (levelFound == -1 && current.studentId == studentId) {
+                levelFound = level;
+            }
+            preds[level] = pred;
+            succs[level] = current;
+        }
+        return levelFound;
+    }
+
+    // Level k with probability 1 / 2^(k+1)
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt() | (1 << MAX_LEVEL);
+        return Math.min(Integer.numberOfTrailingZeros(bits), MAX_LEVEL);
+    }
+
+    private static void checkKey(int studentId) {
+        if (studentId == Integer.MIN_VALUE || studentId == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Reserved student ID: " + studentId);
+        }
+    }
+}
+
+// ========== EYTZINGER SNAPSHOT (READ-ONLY DIRECTORY) ==========
+// Stores a frozen StudentAVL as a plain int[] in BFS order: the root at index 1,
+// the children of k at 2k and 2k + 1 (like a binary heap). A search reads
+// consecutive levels from the front of the array, the top levels stay in cache,
+// and there are no node objects to chase. The loop
+//     k = 2k + (ids[k] < target ? 1 : 0)
+// has no unpredictable branch; at the end, stripping the trailing 1-bits of k
+// (the final run of right turns) gives the first ID >= target.
+// Java has no prefetch instruction, so this relies on the layout (and the
+// hardware prefetcher) instead.
+
+class EytzingerSnapshot {
+    private final int[] ids;       // ids[1..n] in Eytzinger order; ids[0] unused
+    private final String[] names;  // Parallel to ids
+    private final int n;
+
+    // sortedIds must be ascending with no duplicates
+    public EytzingerSnapshot(int[] sortedIds, String[] sortedNames) {
+        this.n = sortedIds.length;
+        this.ids = new int[n + 1];
+        this.names = new String[n + 1];
+        fill(sortedIds, sortedNames, 1, new int[1]);
+    }
+
+    // In-order walk over the implicit tree hands out the sorted values
+    private void fill(int[] sortedIds, String[] sortedNames, int k, int[] next) {
+        if (k > n) return;
+        fill(sortedIds, sortedNames, 2 * k, next);
+        ids[k] = sortedIds[next[0]];
+        names[k] = sortedNames[next[0]++];
+        fill(sortedIds, sortedNames, 2 * k + 1, next);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Name for studentId, or null
+    public String get(int studentId) {
+        int k = lowerBound(studentId);
+        return (k != 0 && ids[k] == studentId) ? names[k] : null;
+    }
+
+    public boolean contains(int studentId) {
+        int k = lowerBound(studentId);
+        return k != 0 && ids[k] == studentId;
+    }
+
+    // Smallest registered ID >= studentId, or -1 if none
+    public int ceilingId(int studentId) {
+        int k = lowerBound(studentId);
+        return k == 0 ? -1 : ids[k];
+    }
+
+    // Index of the first ID >= target (0 if every ID is smaller)
+    private int lowerBound(int target) {
+        int k = 1;
+        while (k <= n) {
+            k = 2 * k + (ids[k] < target ? 1 : 0);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+}
+
+// Holds the current snapshot; readers never block and see either the old or the
+// new directory, never a mix. Writers rebuild after each batch and swap it in.
+class StudentDirectory {
+    private final AtomicReference<EytzingerSnapshot> current;
+
+    public StudentDirectory(StudentAVL registry) {
+        this.current = new AtomicReference<>(registry.freeze());
+    }
+
+    public String lookup(int studentId) {
+        return current.get().get(studentId);
+    }
+
+    public EytzingerSnapshot snapshot() {
+        return current.get();
+    }
+
+    // Freeze the registry and replace the snapshot atomically
+    public void publish(StudentAVL registry) {
+        current.set(registry.freeze());
+    }
+}
+
+// ========== STRUCT-OF-ARRAYS NODE POOLS ==========
+// A StudentNode or AVLNode is a separate heap object: a 12-16 byte header,
+// the key, a String reference (plus the String and its char array) and two
+// child references, scattered wherever the allocator put them. The pooled
+// trees below keep one primitive array per field instead:
+//   keys[slot], left[slot], right[slot], height[slot] (byte), nameCode[slot]
+// Children are int slot numbers, slot 0 is the empty tree (height 0), and
+// names are UTF-8 bytes in a NameDictionary. The GC sees a handful of arrays
+// instead of millions of objects, and a search touches dense int arrays.
+
+// Interns names as UTF-8 bytes in one buffer; codes are dense ints from 0.
+// Each intern() holds a reference until release(); names nobody references
+// stay in the buffer until compact() drops them and renumbers the rest.
+class NameDictionary {
+    private byte[] data = new byte[1 << 12];
+    private int used = 0;
+    private int[] offsets = new int[65];  // Name c occupies data[offsets[c] .. offsets[c + 1])
+    private int[] references = new int[64];
+    private int count = 0;
+    private int dead = 0;                 // Codes with no references left
+    private int[] table = new int[128];   // Open addressing: code + 1, 0 = empty
+
+    // Names still referenced
+    public int size() {
+        return count - dead;
+    }
+
+    // Bytes held for name text, dead names included
+    public int dataBytes() {
+        return used;
+    }
+
+    // Code for name, adding it if new (equal names share one code)
+    public int intern(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int mask = table.length - 1;
+        int slot = hash(bytes) & mask;
+        while (table[slot] != 0) {
+            int code = table[slot] - 1;
+            if (matches(code, bytes)) {
+                if (references[code]++ == 0) dead--;  // Revived before compact() dropped it
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (used + bytes.length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, used + bytes.length));
+        }
+        if (count + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            references = Arrays.copyOf(references, offsets.length - 1);
+        }
+        System.arraycopy(bytes, 0, data, used, bytes.length);
+        used += bytes.length;
+        int code = count++;
+        offsets[count] = used;
+        references[code] = 1;
+        table[slot] = code + 1;
+        if (count * 2 > table.length) rehash();  // Keep load factor <= 1/2
+        return code;
+    }
+
+    // Drop one reference taken by intern()
+    public void release(int code) {
+        if (--references[code] == 0) dead++;
+    }
+
+    public String get(int code) {
+        return new String(data, offsets[code], offsets[code + 1] - offsets[code], StandardCharsets.UTF_8);
+    }
+
+    // Remove unreferenced names and shrink the buffers. Returns old code -> new
+    // code (-1 for removed names); callers must rewrite every code they hold.
+    public int[] compact() {
+        int[] newCode = new int[count];
+        int live = count - dead;
+        int liveBytes = 0;
+        for (int code = 0; code < count; code++) {
+            if (references[code] > 0) liveBytes += offsets[code + 1] - offsets[code];
+        }
+
+        byte[] newData = new byte[Math.max(16, liveBytes)];
+        int[] newOffsets = new int[live + 2];
+        int[] newReferences = new int[live + 1];
+        int next = 0;
+        int position = 0;
+        for (int code = 0; code < count; code++) {
+            if (references[code] == 0) {
+                newCode[code] = -1;
+                continue;
+            }
+            int length = offsets[code + 1] - offsets[code];
+            System.arraycopy(data, offsets[code], newData, position, length);
+            position += length;
+            newReferences[next] = references[code];
+            newCode[code] = next++;
+            newOffsets[next] = position;
+        }
+
+        data = newData;
+        used = position;
+        offsets = newOffsets;
+        references = newReferences;
+        count = live;
+        dead = 0;
+        table = new int[Math.max(128, Integer.highestOneBit(Math.max(1, live)) * 4)];
+        rebuildTable();
+        return newCode;
+    }
+
+    private boolean matches(int code, byte[] bytes) {
+        int start = offsets[code];
+        if (offsets[code + 1] - start != bytes.length) return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (data[start + i] != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        rebuildTable();
+    }
+
+    private void rebuildTable() {
+        int mask = table.length - 1;
+        for (int code = 0; code < count; code++) {
+            int slot = hash(data, offsets[code], offsets[code + 1]) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = code + 1;
+        }
+    }
+
+    private static int hash(byte[] bytes) {
+        return hash(bytes, 0, bytes.length);
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + bytes[i];
+        return h ^ (h >>> 16);
+    }
+}
+
+// StudentBST with array-backed nodes. Same operations; nodes are addressed by
+// slot number (-1 = not found) and read through nameOf/gpaOf.
+class PooledStudentBST {
+    private static final int NIL = 0;
+
+    private double[] gpa = new double[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private int[] size = new int[16];      // Students in this subtree (size[NIL] = 0)
+    private int[] nameCode = new int[16];
+    private final NameDictionary names = new NameDictionary();
+    private int root = NIL;
+    private int used = 1;  // Slot 0 is NIL
+
+    public void insert(String name, double studentGpa) {
+        put(name, studentGpa);
+        System.out.println("✓ Inserted: " + name + " (GPA: " + studentGpa + ")");
+    }
+
+    // Insert without console output
+    public void put(String name, double studentGpa) {
+        int slot = allocate(name, studentGpa);
+        if (root == NIL) {
+            root = slot;
+            return;
+        }
+        int current = root;
+        while (true) {
+            size[current]++;
+            if (studentGpa < gpa[current]) {
+                if (left[current] == NIL) {
+                    left[current] = slot;
+                    return;
+                }
+                current = left[current];
+            } else {
+                // Equal GPAs go right, as in StudentBST
+                if (right[current] == NIL) {
+                    right[current] = slot;
+                    return;
+                }
+                current = right[current];
+            }
+        }
+    }
+
+    // Slot of a student with exactly this GPA, or -1
+    public int search(double studentGpa) {
+        int current = root;
+        while (current != NIL) {
+            if (studentGpa == gpa[current]) return current;
+            current = (studentGpa < gpa[current]) ? left[current] : right[current];
+        }
+        return -1;
+    }
+
+    public int findMin() {
+        if (root == NIL) return -1;
+        int current = root;
+        while (left[current] != NIL) current = left[current];
+        return current;
+    }
+
+    public int findMax() {
+        if (root == NIL) return -1;
+        int current = root;
+        while (right[current] != NIL) current = right[current];
+        return current;
+    }
+
+    public String nameOf(int slot) {
+        return names.get(nameCode[slot]);
+    }
+
+    public double gpaOf(int slot) {
+        return gpa[slot];
+    }
+
+    public int size() {
+        return size[root];
+    }
+
+    // Number of students with minGpa <= GPA <= maxGpa
+    public int countInRange(double minGpa, double maxGpa) {
+        if (minGpa > maxGpa) return 0;
+        return countAtMost(maxGpa) - countBelow(minGpa);
+    }
+
+    private int countBelow(double value) {
+        int count = 0;
+        int current = root;
+        while (current != NIL) {
+            if (gpa[current] < value) {
+                count += size[left[current]] + 1;
+                current = right[current];
+            } else {
+                current = left[current];
+            }
+        }
+        return count;
+    }
+
+    private int countAtMost(double value) {
+        int count = 0;
+        int current = root;
+        while (current != NIL) {
+            if (gpa[current] <= value) {
+                count += size[left[current]] + 1;
+                current = right[current];
+            } else {
+                current = left[current];
+            }
+        }
+        return count;
+    }
+
+    // In-order traversal gives sorted order (ascending GPA)
+    public void inOrderTraversal() {
+        System.out.println("\n=== Students by GPA (Ascending) ===");
+        int[] stack = new int[Math.max(1, size())];
+        int top = 0;
+        int current = root;
+        while (current != NIL || top > 0) {
+            while (current != NIL) {
+                stack[top++] = current;
+                current = left[current];
+            }
+            current = stack[--top];
+            System.out.println(nameOf(current) + ": " + gpa[current]);
+            current = right[current];
+        }
+    }
+
+    private int allocate(String name, double studentGpa) {
+        if (used == gpa.length) {
+            int capacity = used * 2;
+            gpa = Arrays.copyOf(gpa, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            size = Arrays.copyOf(size, capacity);
+            nameCode = Arrays.copyOf(nameCode, capacity);
+        }
+        int slot = used++;
+        gpa[slot] = studentGpa;
+        size[slot] = 1;
+        nameCode[slot] = names.intern(name);
+        return slot;
+    }
+}
+
+// StudentAVL (silent API) with array-backed nodes. search returns the name
+// instead of a node; deleted slots go on a free list threaded through left[].
+class PooledStudentAVL {
+    private static final int NIL = 0;
+    private static final int MAX_PATH = 64;
+
+    private int[] ids = new int[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private byte[] height = new byte[16];  // height[NIL] = 0; AVL height never exceeds 127
+    private int[] nameCode = new int[16];
+    private final NameDictionary names = new NameDictionary();
+    private int root = NIL;
+    private int used = 1;  // Slot 0 is NIL
+    private int freeList = NIL;
+    private int count = 0;
+
+    public int size() {
+        return count;
+    }
+
+    // Bytes of UTF-8 name text held, including names no student uses any more
+    public int nameBytes() {
+        return names.dataBytes();
+    }
+
+    // Name for studentId, or null
+    public String search(int studentId) {
+        int slot = find(studentId);
+        return slot == NIL ? null : names.get(nameCode[slot]);
+    }
+
+    public boolean contains(int studentId) {
+        return find(studentId) != NIL;
+    }
+
+    // Insert (false if the ID already exists)
+    public boolean put(int studentId, String name) {
+        int[] path = new int[MAX_PATH];
+        int depth = 0;
+        int current = root;
+        while (current != NIL) {
+            if (studentId == ids[current]) return false;
+            path[depth++] = current;
+            current = (studentId < ids[current]) ? left[current] : right[current];
+        }
+
+        int slot = allocate(studentId, name);
+        count++;
+        if (depth == 0) {
+            root = slot;
+            return true;
+        }
+        int parent = path[depth - 1];
+        if (studentId < ids[parent]) {
+            left[parent] = slot;
+        } else {
+            right[parent] = slot;
+        }
+        rebalancePath(path, depth);
+        return true;
+    }
+
+    public boolean update(int studentId, String name) {
+        int slot = find(studentId);
+        if (slot == NIL) return false;
+        int oldCode = nameCode[slot];
+        nameCode[slot] = names.intern(name);
+        names.release(oldCode);
+        return true;
+    }
+
+    public boolean delete(int studentId) {
+        int[] path = new int[MAX_PATH];
+        int depth = 0;
+        int current = root;
+        while (current != NIL && ids[current] != studentId) {
+            path[depth++] = current;
+            current = (studentId < ids[current]) ? left[current] : right[current];
+        }
+        if (current == NIL) return false;
+        names.release(nameCode[current]);
+
+        int target = current;
+        if (left[target] != NIL && right[target] != NIL) {
+            // Two children: copy the in-order successor up, then unlink the successor
+            path[depth++] = target;
+            int successor = right[target];
+            while (left[successor] != NIL) {
+                path[depth++] = successor;
+                successor = left[successor];
+            }
+            ids[target] = ids[successor];
+            nameCode[target] = nameCode[successor];
+            target = successor;
+        }
+
+        int child = (left[target] != NIL) ? left[target] : right[target];
+        if (depth == 0) {
+            root = child;
+        } else if (left[path[depth - 1]] == target) {
+            left[path[depth - 1]] = child;
+        } else {
+            right[path[depth - 1]] = child;
+        }
+        release(target);
+        count--;
+        rebalancePath(path, depth);
+        return true;
+    }
+
+    public boolean isBalanced() {
+        return checkHeights(root) != -1;
+    }
+
+    // Students in ascending ID order
+    public void inOrderTraversal() {
+        System.out.println("\n=== Students by ID (Ascending) ===");
+        int[] stack = new int[MAX_PATH];
+        int top = 0;
+        int current = root;
+        while (current != NIL || top > 0) {
+            while (current != NIL) {
+                stack[top++] = current;
+                current = left[current];
+            }
+            current = stack[--top];
+            System.out.println("ID " + ids[current] + ": " + names.get(nameCode[current]));
+            current = right[current];
+        }
+    }
+
+    private int find(int studentId) {
+        int current = root;
+        while (current != NIL && ids[current] != studentId) {
+            current = (studentId < ids[current]) ? left[current] : right[current];
+        }
+        return current;
+    }
+
+    private int allocate(int studentId, String name) {
+        int slot;
+        if (freeList != NIL) {
+            slot = freeList;
+            freeList = left[slot];
+        } else {
+            if (used == ids.length) {
+                int capacity = used * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                height = Arrays.copyOf(height, capacity);
+                nameCode = Arrays.copyOf(nameCode, capacity);
+            }
+            slot = used++;
+        }
+        ids[slot] = studentId;
+        left[slot] = NIL;
+        right[slot] = NIL;
+        height[slot] = 1;
+        nameCode[slot] = names.intern(name);
+        return slot;
+    }
+
+    private void release(int slot) {
+        left[slot] = freeList;
+        right[slot] = NIL;
+        height[slot] = 0;
+        freeList = slot;
+    }
+
+    private void updateHeight(int node) {
+        height[node] = (byte) (1 + Math.max(height[left[node]], height[right[node]]));
+    }
+
+    private int balance(int node) {
+        return height[left[node]] - height[right[node]];
+    }
+
+    private int rotateRight(int y) {
+        int x = left[y];
+        left[y] = right[x];
+        right[x] = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    private int rotateLeft(int x) {
+        int y = right[x];
+        right[x] = left[y];
+        left[y] = x;
+        updateHeight(x);
+        updateHeight(y);
+        return y;
+    }
+
+    // Same early-exit walk as StudentAVL.rebalancePath
+    private void rebalancePath(int[] path, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int node = path[i];
+            int oldHeight = height[node];
+            int subtree = rebalance(node);
+
+            if (subtree != node) {
+                if (i == 0) root = subtree;
+                else if (left[path[i - 1]] == node) left[path[i - 1]] = subtree;
+                else right[path[i - 1]] = subtree;
+            }
+            if (height[subtree] == oldHeight) return;
+        }
+    }
+
+    private int rebalance(int node) {
+        updateHeight(node);
+        int balance = balance(node);
+
+        if (balance > 1) {
+            if (balance(left[node]) < 0) left[node] = rotateLeft(left[node]);
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (balance(right[node]) > 0) right[node] = rotateRight(right[node]);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int checkHeights(int node) {
+        if (node == NIL) return 0;
+        int l = checkHeights(left[node]);
+        int r = checkHeights(right[node]);
+        if (l == -1 || r == -1 || Math.abs(l - r) > 1) return -1;
+        int h = 1 + Math.max(l, r);
+        return (h == height[node]) ? h : -1;
+    }
+
+    // Renumber live slots in van Emde Boas order and trim the arrays. The top
+    // half of the levels is laid out first, then each bottom subtree, recursively,
+    // so any root-to-leaf search crosses O(log n / log B) cache blocks instead of
+    // one per level. Names freed by renames and withdrawals are dropped from the
+    // dictionary at the same time. Worth calling after a bulk of changes, before heavy reading.
+    public void compact() {
+        int[] newCodes = names.compact();
+        int[] newSlot = new int[used];  // newSlot[NIL] stays NIL
+        layout(root, height[root], newSlot, new int[]{1});
+
+        int capacity = count + 1;
+        int[] newIds = new int[capacity];
+        int[] newLeft = new int[capacity];
+        int[] newRight = new int[capacity];
+        byte[] newHeight = new byte[capacity];
+        int[] newNameCode = new int[capacity];
+        for (int old = 1; old < used; old++) {
+            int slot = newSlot[old];
+            if (slot == NIL) continue;  // Free-list slot
+            newIds[slot] = ids[old];
+            newLeft[slot] = newSlot[left[old]];
+            newRight[slot] = newSlot[right[old]];
+            newHeight[slot] = height[old];
+            newNameCode[slot] = newCodes[nameCode[old]];
+        }
+        root = newSlot[root];
+        ids = newIds;
+        left = newLeft;
+        right = newRight;
+        height = newHeight;
+        nameCode = newNameCode;
+        used = capacity;
+        freeList = NIL;
+    }
+
+    // Assign new slots to the first `levels` levels below node
+    private void layout(int node, int levels, int[] newSlot, int[] next) {
+        if (node == NIL) return;
+        if (levels == 1) {
+            newSlot[node] = next[0]++;
+            return;
+        }
+        int top = levels / 2;
+        layout(node, top, newSlot, next);
+        int[] frontier = new int[1 << top];
+        int found = collectAtDepth(node, top, frontier, 0);
+        for (int i = 0; i < found; i++) {
+            layout(frontier[i], levels - top, newSlot, next);
+        }
+    }
+
+    private int collectAtDepth(int node, int depth, int[] out, int found) {
+        if (node == NIL) return found;
+        if (depth == 0) {
+            out[found] = node;
+            return found + 1;
+        }
+        found = collectAtDepth(left[node], depth - 1, out, found);
+        return collectAtDepth(right[node], depth - 1, out, found);
+    }
+}
+
+// ========== PERSISTENT (PATH-COPYING) AVL ==========
+// Nodes are immutable. insert/delete never change an existing node: they copy
+// only the nodes on the root-to-target path (O(log n)) and point the copies at
+// the untouched subtrees, which all versions share. Every old root therefore
+// stays a complete, valid tree that can be read without locks forever (or until
+// the retention policy drops it and the garbage collector reclaims what no
+// newer version shares).
+
+final class PersistentAVLNode {
+    final int studentId;
+    final String name;
+    final int height;
+    final PersistentAVLNode left;
+    final PersistentAVLNode right;
+
+    PersistentAVLNode(int studentId, String name, PersistentAVLNode left, PersistentAVLNode right) {
+        this.studentId = studentId;
+        this.name = name;
+        this.left = left;
+        this.right = right;
+        this.height = 1 + Math.max(left == null ? 0 : left.height, right == null ? 0 : right.height);
+    }
+}
+
+final class PersistentStudentAVL {
+    static final PersistentStudentAVL EMPTY = new PersistentStudentAVL(null, 0, 0);
+
+    private final PersistentAVLNode root;
+    private final int size;
+    private final int nodesCopied;  // New nodes allocated to create this version
+
+    private PersistentStudentAVL(PersistentAVLNode root, int size, int nodesCopied) {
+        this.root = root;
+        this.size = size;
+        this.nodesCopied = nodesCopied;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getNodesCopied() {
+        return nodesCopied;
+    }
+
+    PersistentAVLNode getRoot() {
+        return root;
+    }
+
+    public String get(int studentId) {
+        PersistentAVLNode current = root;
+        while (current != null) {
+            if (studentId == current.studentId) return current.name;
+            current = (studentId < current.studentId) ? current.left : current.right;
+        }
+        return null;
+    }
+
+    // New version with the student added (or renamed if the ID exists)
+    public PersistentStudentAVL insert(int studentId, String name) {
+        int[] copies = new int[1];
+        boolean[] added = new boolean[1];
+        PersistentAVLNode newRoot = insert(root, studentId, name, copies, added);
+        return new PersistentStudentAVL(newRoot, size + (added[0] ? 1 : 0), copies[0]);
+    }
+
+    // New version without the student (this version if the ID is absent)
+    public PersistentStudentAVL delete(int studentId) {
+        if (get(studentId) == null) return this;
+        int[] copies = new int[1];
+        PersistentAVLNode newRoot = delete(root, studentId, copies);
+        return new PersistentStudentAVL(newRoot, size - 1, copies[0]);
+    }
+
+    private static PersistentAVLNode insert(PersistentAVLNode node, int studentId, String name,
+                                            int[] copies, boolean[] added) {
+        copies[0]++;
+        if (node == null) {
+            added[0] = true;
+            return new PersistentAVLNode(studentId, name, null, null);
+        }
+        if (studentId < node.studentId) {
+            return balance(node.studentId, node.name,
+                    insert(node.left, studentId, name, copies, added), node.right, copies);
+        }
+        if (studentId > node.studentId) {
+            return balance(node.studentId, node.name,
+                    node.left, insert(node.right, studentId, name, copies, added), copies);
+        }
+        return new PersistentAVLNode(studentId, name, node.left, node.right);
+    }
+
+    private static PersistentAVLNode delete(PersistentAVLNode node, int studentId, int[] copies) {
+        if (studentId < node.studentId) {
+            copies[0]++;
+            return balance(node.studentId, node.name, delete(node.left, studentId, copies), node.right, copies);
+        }
+        if (studentId > node.studentId) {
+            copies[0]++;
+            return balance(node.studentId, node.name, node.left, delete(node.right, studentId, copies), copies);
+        }
+
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+
+        // Two children: the in-order successor takes this node's place
+        PersistentAVLNode successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        copies[0]++;
+        return balance(successor.studentId, successor.name,
+                node.left, delete(node.right, successor.studentId, copies), copies);
+    }
+
+    // Build a node from parts, rotating (with fresh copies) if it would be unbalanced
+    private static PersistentAVLNode balance(int studentId, String name, PersistentAVLNode left,
+                                             PersistentAVLNode right, int[] copies) {
+        int balance = height(left) - height(right);
+
+        if (balance > 1) {
+            if (height(left.left) < height(left.right)) {
+                // Left-Right: left.right becomes the new root
+                PersistentAVLNode pivot = left.right;
+                copies[0] += 2;
+                return new PersistentAVLNode(pivot.studentId, pivot.name,
+                        new PersistentAVLNode(left.studentId, left.name, left.left, pivot.left),
+                        new PersistentAVLNode(studentId, name, pivot.right, right));
+            }
+            copies[0]++;
+            return new PersistentAVLNode(left.studentId, left.name, left.left,
+                    new PersistentAVLNode(studentId, name, left.right, right));
+        }
+        if (balance < -1) {
+            if (height(right.right) < height(right.left)) {
+                // Right-Left: right.left becomes the new root
+                PersistentAVLNode pivot = right.left;
+                copies[0] += 2;
+                return new PersistentAVLNode(pivot.studentId, pivot.name,
+                        new PersistentAVLNode(studentId, name, left, pivot.left),
+                        new PersistentAVLNode(right.studentId, right.name, pivot.right, right.right));
+            }
+            copies[0]++;
+            return new PersistentAVLNode(right.studentId, right.name,
+                    new PersistentAVLNode(studentId, name, left, right.left), right.right);
+        }
+        return new PersistentAVLNode(studentId, name, left, right);
+    }
+
+    private static int height(PersistentAVLNode node) {
+        return (node == null) ? 0 : node.height;
+    }
+}
+
+// Timeline of registry versions keyed by timestamp (e.g. epoch millis).
+// Writers are serialised; readers get immutable versions with no locking.
+class VersionedStudentRegistry {
+    private final ConcurrentSkipListMap<Long, PersistentStudentAVL> versions = new ConcurrentSkipListMap<>();
+    private volatile PersistentStudentAVL latest = PersistentStudentAVL.EMPTY;
+
+    public synchronized void insert(long timestamp, int studentId, String name) {
+        commit(timestamp, latest.insert(studentId, name));
+    }
+
+    public synchronized void delete(long timestamp, int studentId) {
+        commit(timestamp, latest.delete(studentId));
+    }
+
+    private void commit(long timestamp, PersistentStudentAVL version) {
+        if (!versions.isEmpty() && timestamp < versions.lastKey()) {
+            throw new IllegalArgumentException("Timestamps must not go backwards: " + timestamp);
+        }
+        versions.put(timestamp, version);
+        latest = version;
+    }
+
+    public PersistentStudentAVL latest() {
+        return latest;
+    }
+
+    // The directory as it was at timestamp (EMPTY if before the first retained version)
+    public PersistentStudentAVL asOf(long timestamp) {
+        Map.Entry<Long, PersistentStudentAVL> entry = versions.floorEntry(timestamp);
+        return entry == null ? PersistentStudentAVL.EMPTY : entry.getValue();
+    }
+
+    public int versionCount() {
+        return versions.size();
+    }
+
+    // Retention: keep only the newest maxVersions versions
+    public synchronized void retainLatest(int maxVersions) {
+        while (versions.size() > maxVersions) {
+            versions.pollFirstEntry();
+        }
+    }
+
+    // Retention: drop versions older than cutoff (the one in effect at cutoff stays)
+    public synchronized void pruneBefore(long cutoff) {
+        Long keep = versions.floorKey(cutoff);
+        if (keep != null) {
+            versions.headMap(keep).clear();
+        }
+    }
+
+    // Distinct nodes reachable from all retained versions (shared nodes count once)
+    public int retainedNodeCount() {
+        Set<PersistentAVLNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<PersistentAVLNode> stack = new ArrayDeque<>();
+        for (PersistentStudentAVL version : versions.values()) {
+            if (version.getRoot() != null) stack.push(version.getRoot());
+            while (!stack.isEmpty()) {
+                PersistentAVLNode node = stack.pop();
+                if (!seen.add(node)) continue;  // Shared subtree already counted
+                if (node.left != null) stack.push(node.left);
+                if (node.right != null) stack.push(node.right);
+            }
+        }
+        return seen.size();
+    }
+}
+
+public class CampusSocialNetworkModule4 {
+    public static void main(String[] args) {
+        System.out.println("=== BINARY TREE: Organization Structure ===\n");
+
+        // Create organization tree
+        OrganizationTree csClub = new OrganizationTree("Alice Johnson");
+        csClub.addVicePresident("Bob Smith");
+        csClub.addSecretary("Charlie Brown");
+
+        // Add more members to create a FULL binary tree
+        csClub.getRoot().left.left = new OrgNode("Diana Prince", "Events Head");
+        csClub.getRoot().left.right = new OrgNode("Eve Wilson", "Tech Head");
+        csClub.getRoot().right.left = new OrgNode("Frank Miller", "Treasurer");
+        csClub.getRoot().right.right = new OrgNode("Grace Lee", "PR Head");
+
+        // Check tree properties
         System.out.println("Tree Type Analysis:");
         System.out.println("  Is Full? " + csClub.isFull());
         System.out.println("  Is Complete? " + csClub.isComplete());
@@ -511,6 +4078,51 @@ public class CampusSocialNetworkModule4 {
         System.out.println("\nLevel-order (By level):");
         csClub.levelOrderTraversal();
 
+        System.out.println("\nLazy post-order (names only): " + csClub.stream(TraversalOrder.POST_ORDER, false)
+                .map(node -> node.name).collect(Collectors.toList()));
+        Iterator<OrgNode> levels = csClub.iterator(TraversalOrder.LEVEL_ORDER);
+        System.out.println("First two by level: " + levels.next().name + ", " + levels.next().name);
+
+        System.out.println("\n=== N-ARY HIERARCHY: Faculty Chain of Command ===\n");
+
+        OrgHierarchy faculty = OrgHierarchy.fromBinaryTree(csClub);
+        faculty.addUnit("Hana Kim", "Workshop Lead", "Diana Prince");
+        faculty.addUnit("Ivan Petrov", "Hackathon Lead", "Diana Prince");
+        faculty.addUnit("Jade Wong", "Web Developer", "Eve Wilson");
+        faculty.addUnit("Kyle Reed", "Auditor", "Frank Miller");
+        System.out.println("Diana's team: " + faculty.getChildren("Diana Prince"));
+        System.out.println("LCA(Hana, Jade): " + faculty.lowestCommonAncestor("Hana Kim", "Jade Wong"));
+        System.out.println("LCA(Ivan, Kyle): " + faculty.lowestCommonAncestor("Ivan Petrov", "Kyle Reed"));
+        System.out.println("Jade reports up to Bob? " + faculty.isInChainOfCommand("Jade Wong", "Bob Smith"));
+        System.out.println("Jade reports up to Charlie? " + faculty.isInChainOfCommand("Jade Wong", "Charlie Brown"));
+        System.out.println("Depth of Kyle: " + faculty.depth("Kyle Reed") +
+                ", distance Hana -> Kyle: " + faculty.distance("Hana Kim", "Kyle Reed"));
+
+        faculty.moveUnit("Eve Wilson", "Charlie Brown");  // Tech team moves under the secretary
+        System.out.println("After moving Eve's team, Jade reports up to Charlie? " +
+                faculty.isInChainOfCommand("Jade Wong", "Charlie Brown") +
+                ", LCA(Jade, Kyle): " + faculty.lowestCommonAncestor("Jade Wong", "Kyle Reed"));
+
+        System.out.println("\n=== SUBTREE AGGREGATES: Department Dashboard ===\n");
+
+        OrgChartAggregates dashboard = new OrgChartAggregates(faculty);
+        String[] units = {"Alice Johnson", "Bob Smith", "Charlie Brown", "Diana Prince", "Eve Wilson",
+                "Frank Miller", "Grace Lee", "Hana Kim", "Ivan Petrov", "Jade Wong", "Kyle Reed"};
+        for (int i = 0; i < units.length; i++) {
+            dashboard.setMembers(units[i], 3 + i);
+            dashboard.setBudget(units[i], 1000L * (i + 1));
+        }
+        System.out.println("Charlie's subtree: " + dashboard.subtreeUnitCount("Charlie Brown") + " units, " +
+                dashboard.subtreeMembers("Charlie Brown") + " members, budget " +
+                dashboard.subtreeBudget("Charlie Brown") + ", largest " +
+                dashboard.maxBudgetInSubtree("Charlie Brown"));
+        dashboard.addMembers("Jade Wong", 1);   // A new web developer joins
+        dashboard.setBudget("Kyle Reed", 20000);
+        System.out.println("After updates: " + dashboard.subtreeMembers("Charlie Brown") + " members, budget " +
+                dashboard.subtreeBudget("Charlie Brown") + ", largest " +
+                dashboard.maxBudgetInSubtree("Charlie Brown"));
+        System.out.println("Whole organisation: " + dashboard.subtreeMembers("Alice Johnson") + " members");
+
         System.out.println("\n=== BINARY SEARCH TREE: Students by GPA ===\n");
 
         StudentBST honorRoll = new StudentBST();
@@ -519,6 +4131,7 @@ public class CampusSocialNetworkModule4 {
         honorRoll.insert("Charlie", 3.90);
         honorRoll.insert("Diana", 3.65);
         honorRoll.insert("Eve", 3.95);
+        honorRoll.insert("Frank", 3.85);  // Same GPA as Alice (kept, not dropped)
 
         honorRoll.inOrderTraversal();
 
@@ -533,6 +4146,50 @@ public class CampusSocialNetworkModule4 {
         System.out.println("\nLowest GPA: " + min.name + " (" + min.gpa + ")");
         System.out.println("Highest GPA: " + max.name + " (" + max.gpa + ")");
 
+        System.out.println("\nScholarship range [3.70, 3.90] (descending):");
+        Iterator<StudentNode> eligible = honorRoll.rangeIterator(3.70, 3.90, false);
+        while (eligible.hasNext()) {
+            StudentNode student = eligible.next();
+            System.out.println("  " + student.name + ": " + student.gpa);
+        }
+        System.out.println("Count in range: " + honorRoll.countInRange(3.70, 3.90));
+        StudentNode firstAbove = honorRoll.stream(TraversalOrder.IN_ORDER, false)
+                .filter(node -> node.gpa > 3.80).findFirst().orElse(null);
+        System.out.println("First above 3.80 (stops early): " + firstAbove.name);
+
+        System.out.println("\n=== ORDER-STATISTIC GPA INDEX: Rank & Percentile ===\n");
+
+        GpaRankIndex gpaIndex = new GpaRankIndex();
+        gpaIndex.insert("Alice", 2024001, 3.85);
+        gpaIndex.insert("Bob", 2024002, 3.70);
+        gpaIndex.insert("Charlie", 2024003, 3.90);
+        gpaIndex.insert("Diana", 2024004, 3.65);
+        gpaIndex.insert("Eve", 2024005, 3.95);
+        gpaIndex.insert("Frank", 2024006, 3.85);
+
+        System.out.println("Students indexed: " + gpaIndex.size());
+        System.out.println("Alice's percentile: " + gpaIndex.percentile(2024001));
+        System.out.println("Alice's rank (students below): " + gpaIndex.rank(2024001));
+        GpaRankNode second = gpaIndex.selectBest(2);
+        System.out.println("2nd best: " + second.name + " (" + second.gpa + ")");
+
+        System.out.println("\n=== TOP-K LEADERBOARD: Dean's List During Exam Week ===\n");
+
+        GpaLeaderboard deansList = new GpaLeaderboard(3);
+        deansList.postGrade("Alice", 2024001, 3.85);
+        deansList.postGrade("Bob", 2024002, 3.70);
+        deansList.postGrade("Charlie", 2024003, 3.90);
+        deansList.postGrade("Diana", 2024004, 3.65);
+        deansList.postGrade("Eve", 2024005, 3.95);
+        System.out.println("Top 3: " + deansList.topK() + ", cutoff " + deansList.cutoffGpa());
+        deansList.postGrade("Diana", 2024004, 3.97);  // Aced her finals
+        deansList.postGrade("Eve", 2024005, 3.60);    // Rough exam week
+        System.out.println("After grades post: " + deansList.topK());
+        System.out.println("Eve on the list? " + deansList.isOnBoard(2024005) +
+                " (place " + deansList.placeOf(2024005) + " of " + deansList.size() + ")");
+
+        compareSketchWithExact(50_000, 4, 11L);
+
         System.out.println("\n=== AVL TREE: Self-Balancing Student Registry ===\n");
 
         StudentAVL registry = new StudentAVL();
@@ -548,6 +4205,153 @@ public class CampusSocialNetworkModule4 {
         registry.inOrderTraversal();
         registry.displayTreeStructure();
 
+        // Semester start: build the registry in one O(n) pass, then merge late sign-ups
+        StudentAVL semester = new StudentAVL();
+        semester.bulkLoad(new int[]{2024003, 2024001, 2024005, 2024002, 2024004},
+                new String[]{"Charlie", "Alice", "Eve", "Bob", "Diana"});
+        semester.mergeBatch(new int[]{2024000, 2024006}, new String[]{"Zoe", "Frank"});
+        System.out.println("\nBulk-loaded registry:");
+        semester.displayTreeStructure();
+
+        // Withdrawals and name changes
+        semester.delete(2024003);
+        semester.update(2024004, "Diana Prince");
+        System.out.println("\nAfter withdrawing 2024003 and renaming 2024004:");
+        semester.displayTreeStructure();
+
+        stressTestRegistry(200_000, 42L);
+        // Heap measurement forces full GCs and builds four 1M-node trees: opt-in only
+        if (Arrays.asList(args).contains("--benchmark")) {
+            benchmarkNodePools(1_000_000, 7L);
+        }
+
+        // Parallel stream over a registry: work is split by subtree
+        int campusSize = 50_000;
+        int[] campusIds = new int[campusSize];
+        String[] campusNames = new String[campusSize];
+        for (int i = 0; i < campusSize; i++) {
+            campusIds[i] = 3000000 + i;
+            campusNames[i] = "S" + i;
+        }
+        StudentAVL campus = new StudentAVL();
+        campus.bulkLoad(campusIds, campusNames);
+        long sequential = campus.stream(TraversalOrder.PRE_ORDER, false).filter(n -> n.studentId % 7 == 0).count();
+        long parallel = campus.stream(TraversalOrder.PRE_ORDER, true).filter(n -> n.studentId % 7 == 0).count();
+        List<Integer> firstIds = campus.stream(TraversalOrder.IN_ORDER, true)
+                .map(n -> n.studentId).limit(3).collect(Collectors.toList());
+        System.out.println("\nIDs divisible by 7: sequential " + sequential + ", parallel " + parallel +
+                "; first in order: " + firstIds);
+
+        // Frozen read-only directory, swapped in after each batch of changes
+        StudentDirectory directory = new StudentDirectory(semester);
+        System.out.println("\nDirectory lookup 2024005: " + directory.lookup(2024005));
+        semester.put(2024007, "Grace");
+        directory.publish(semester);
+        System.out.println("After publish, lookup 2024007: " + directory.lookup(2024007));
+
+        System.out.println("\n=== CONCURRENT INDEX: Lock-Free Reads ===\n");
+
+        ConcurrentStudentIndex liveIndex = new ConcurrentStudentIndex();
+        Thread[] registrars = new Thread[4];
+        for (int t = 0; t < registrars.length; t++) {
+            final int offset = t;
+            registrars[t] = new Thread(() -> {
+                for (int i = offset; i < 10000; i += registrars.length) {
+                    liveIndex.put(2025000 + i, "Student " + i);
+                    liveIndex.get(2025000 + i / 2);  // Reads run alongside writes
+                }
+            });
+            registrars[t].start();
+        }
+        try {
+            for (Thread registrar : registrars) {
+                registrar.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        liveIndex.remove(2025002);
+        System.out.println("Registered concurrently: " + liveIndex.size());
+        System.out.println("Lookup 2025005: " + liveIndex.get(2025005));
+        System.out.println("Range 2025001..2025004: " + liveIndex.rangeScan(2025001, 2025004));
+
+        System.out.println("\n=== PERSISTENT AVL: Versioned Enrolment Directory ===\n");
+
+        VersionedStudentRegistry history = new VersionedStudentRegistry();
+        for (int day = 1; day <= 1000; day++) {
+            history.insert(day, 2023000 + day, "Student " + day);
+        }
+        history.delete(1001, 2023500);
+        System.out.println("Latest size: " + history.latest().size());
+        System.out.println("As of day 600, size: " + history.asOf(600).size() +
+                ", 2023500 = " + history.asOf(600).get(2023500));
+        System.out.println("Latest, 2023500 = " + history.latest().get(2023500));
+
+        // Memory overhead: nodes kept alive by all versions vs. one version alone
+        int retained = history.retainedNodeCount();
+        System.out.printf("Retained nodes for %d versions: %d (%.1f extra per version)%n",
+                history.versionCount(), retained,
+                (double) (retained - history.latest().size()) / history.versionCount());
+        history.retainLatest(30);
+        System.out.println("After keeping 30 versions: " + history.retainedNodeCount() + " nodes");
+
+        System.out.println("\n=== B+TREE: Disk-Backed Student Index ===\n");
+
+        try {
+            Path indexFile = Files.createTempFile("students", ".bpt");
+            Files.delete(indexFile);  // Start from an empty file
+            try (StudentBPlusTree diskIndex = new StudentBPlusTree(indexFile, 16)) {
+                for (int i = 0; i < 1000; i++) {
+                    diskIndex.insert(2020000 + i, "Student " + i);
+                }
+                diskIndex.insert(2020500, "Alice");
+                diskIndex.delete(2020501);
+                System.out.println("Records: " + diskIndex.size());
+                System.out.println("Lookup 2020500: " + diskIndex.get(2020500));
+                System.out.println("Range 2020499..2020503: " + diskIndex.rangeScan(2020499, 2020503));
+            }
+            Files.delete(indexFile);
+        } catch (IOException e) {
+            System.out.println("✗ B+Tree file error: " + e.getMessage());
+        }
+
+        System.out.println("\n=== COMPACT ORG FILE: Lazy Department Loading ===\n");
+
+        try {
+            // A large multi-campus hierarchy, built once and saved compactly
+            Random shape = new Random(5);
+            OrgNode[] orgUnits = new OrgNode[200_000];
+            orgUnits[0] = new OrgNode("Rector", "President");
+            orgUnits[1] = new OrgNode("Engineering Dean", "Dean");
+            orgUnits[0].left = orgUnits[1];
+            for (int i = 2; i < orgUnits.length; i++) {
+                orgUnits[i] = new OrgNode("Unit " + i, (i % 10 == 0) ? "Head" : "Member");
+                OrgNode parent = orgUnits[1 + shape.nextInt(i - 1)];
+                while (parent.left != null && parent.right != null) {
+                    parent = shape.nextBoolean() ? parent.left : parent.right;
+                }
+                if (parent.left == null) parent.left = orgUnits[i];
+                else parent.right = orgUnits[i];
+            }
+            Path orgFile = Files.createTempFile("organisation", ".orgt");
+            CompactOrgTree.write(new OrganizationTree(orgUnits[0]), orgFile);
+            System.out.printf("File: %d units in %d bytes (%.1f bytes/unit)%n",
+                    orgUnits.length, Files.size(orgFile), (double) Files.size(orgFile) / orgUnits.length);
+
+            try (CompactOrgTree campusOrg = new CompactOrgTree(orgFile)) {
+                CompactOrgNode department = campusOrg.findByName("Unit 1234");
+                System.out.println("Unit 1234 (" + department.getPosition() + ") leads " +
+                        department.subtreeSize() + " units");
+                OrganizationTree decoded = new OrganizationTree(department.materialize());
+                System.out.println("Decoded only that department; is it balanced? " + decoded.isBalanced());
+                Iterator<CompactOrgNode> top = campusOrg.iterator(TraversalOrder.LEVEL_ORDER);
+                System.out.println("Top of the hierarchy: " + top.next().getName() + ", " + top.next().getName());
+            }
+            Files.delete(orgFile);
+        } catch (IOException e) {
+            System.out.println("✗ Organisation file error: " + e.getMessage());
+        }
+
         System.out.println("\n=== TREE CONCEPTS SUMMARY ===");
         System.out.println("\nBinary Tree Types:");
         System.out.println("  • Full Binary Tree: Every node has 0 or 2 children");
@@ -576,4 +4380,184 @@ public class CampusSocialNetworkModule4 {
         System.out.println("  • Post-order (Left-Right-Root): Bottom-up processing");
         System.out.println("  • Level-order (BFS): Level by level");
     }
+
+    // Per-major KLL sketches merged campus-wide, checked against every grade kept sorted
+    static void compareSketchWithExact(int grades, int majors, long seed) {
+        System.out.println("\n=== GPA QUANTILE SKETCH vs Exact (" + grades + " grades) ===");
+        Random random = new Random(seed);
+        double[] exact = new double[grades];
+        GpaQuantileSketch[] byMajor = new GpaQuantileSketch[majors];
+        for (int m = 0; m < majors; m++) byMajor[m] = new GpaQuantileSketch(200, new Random(seed + m));
+
+        for (int i = 0; i < grades; i++) {
+            int major = random.nextInt(majors);
+            // Majors grade differently: centre 2.6 .. 3.2, clipped to [0, 4]
+            double gpa = Math.max(0.0, Math.min(4.0, 2.6 + 0.2 * major + 0.5 * random.nextGaussian()));
+            gpa = Math.round(gpa * 100) / 100.0;
+            byMajor[major].update(gpa);
+            exact[i] = gpa;
+        }
+        Arrays.sort(exact);
+
+        GpaQuantileSketch campus = new GpaQuantileSketch(200, new Random(seed));
+        for (GpaQuantileSketch shard : byMajor) campus.merge(shard);
+        System.out.println("Sketch keeps " + campus.retainedValues() + " values for " + campus.count() + " grades");
+
+        double worstRankError = 0;
+        for (double q : new double[]{0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double exactGpa = exact[(int) Math.ceil(q * grades) - 1];
+            double rankError = Math.abs(campus.rank(exactGpa) - (double) countAtMost(exact, exactGpa) / grades);
+            worstRankError = Math.max(worstRankError, rankError);
+            System.out.printf("  p%-4.0f sketch %.2f  exact %.2f  rank error %.4f%n",
+                    q * 100, campus.quantile(q), exactGpa, rankError);
+        }
+        System.out.printf("Worst rank error at those GPAs: %.4f (bound ~0.017)%n", worstRankError);
+        long[] buckets = campus.histogram(new double[]{2.0, 3.0, 3.5});
+        System.out.println("Histogram <=2.0 / <=3.0 / <=3.5 / above: " + Arrays.toString(buckets) +
+                " exact " + Arrays.toString(new int[]{countAtMost(exact, 2.0),
+                countAtMost(exact, 3.0) - countAtMost(exact, 2.0),
+                countAtMost(exact, 3.5) - countAtMost(exact, 3.0),
+                grades - countAtMost(exact, 3.5)}));
+    }
+
+    // Grades <= gpa in a sorted array (upper-bound binary search)
+    private static int countAtMost(double[] sorted, double gpa) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= gpa) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Object nodes vs. struct-of-arrays pools: heap growth and search speed
+    static void benchmarkNodePools(int students, long seed) {
+        System.out.println("\n=== Node Pool Benchmark (" + students + " students) ===");
+        Random random = new Random(seed);
+        int[] ids = new int[students];
+        double[] gpas = new double[students];
+        for (int i = 0; i < students; i++) {
+            ids[i] = random.nextInt(Integer.MAX_VALUE);
+            gpas[i] = random.nextInt(40001) / 10000.0;
+        }
+
+        long before = usedHeap();
+        StudentAVL objectAvl = new StudentAVL();
+        StudentBST objectBst = new StudentBST();
+        for (int i = 0; i < students; i++) {
+            objectAvl.put(ids[i], "Student " + i);
+            objectBst.put("Student " + i, gpas[i]);
+        }
+        long objectBytes = usedHeap() - before;
+
+        before = usedHeap();
+        PooledStudentAVL pooledAvl = new PooledStudentAVL();
+        PooledStudentBST pooledBst = new PooledStudentBST();
+        for (int i = 0; i < students; i++) {
+            pooledAvl.put(ids[i], "Student " + i);
+            pooledBst.put("Student " + i, gpas[i]);
+        }
+        pooledAvl.compact();  // Cache-friendly slot order once loading is done
+        long pooledBytes = usedHeap() - before;
+
+        System.out.printf("Heap for AVL + BST: objects %.1f MB, pooled %.1f MB (%.0f%% less)%n",
+                objectBytes / 1e6, pooledBytes / 1e6, 100.0 * (objectBytes - pooledBytes) / objectBytes);
+
+        int[] probes = new int[2_000_000];
+        for (int i = 0; i < probes.length; i++) probes[i] = ids[random.nextInt(students)];
+        for (int round = 0; round < 2; round++) {  // First round warms up the JIT
+            long found = 0;
+            long start = System.nanoTime();
+            for (int probe : probes) if (objectAvl.search(probe) != null) found++;
+            long objectNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int probe : probes) if (pooledAvl.contains(probe)) found++;
+            long pooledNanos = System.nanoTime() - start;
+            if (round == 1) {
+                System.out.printf("AVL search: objects %.0f ns, pooled %.0f ns per lookup (%d hits)%n",
+                        (double) objectNanos / probes.length, (double) pooledNanos / probes.length, found);
+            }
+        }
+        System.out.println("Same answers: " + (objectAvl.size() == pooledAvl.size()) + ", BST range " +
+                objectBst.countInRange(3.0, 3.5) + " vs " + pooledBst.countInRange(3.0, 3.5) +
+                ", pooled AVL balanced: " + pooledAvl.isBalanced());
+
+        // Churn: renames and withdrawals (each re-enrolled under a new name) leave
+        // dead names in the dictionary until compact() reclaims them
+        int churn = students;
+        long start = System.nanoTime();
+        for (int i = 0; i < churn; i++) {
+            int id = ids[random.nextInt(students)];
+            String name = "Renamed " + i;
+            if (random.nextInt(4) == 0) {
+                objectAvl.delete(id);
+                pooledAvl.delete(id);
+                objectAvl.put(id, name);
+                pooledAvl.put(id, name);
+            } else {
+                objectAvl.update(id, name);
+                pooledAvl.update(id, name);
+            }
+        }
+        long churnNanos = System.nanoTime() - start;
+        int bytesBefore = pooledAvl.nameBytes();
+        pooledAvl.compact();
+        boolean same = objectAvl.size() == pooledAvl.size();
+        for (int i = 0; i < 10_000 && same; i++) {
+            int id = ids[random.nextInt(students)];
+            same = objectAvl.search(id).name.equals(pooledAvl.search(id));
+        }
+        System.out.printf("%d renames/withdrawals: %.0f ns per change (both trees); " +
+                        "name text %.1f MB -> %.1f MB after compact; same answers: %b%n",
+                churn, (double) churnNanos / churn, bytesBefore / 1e6, pooledAvl.nameBytes() / 1e6, same);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Randomised insert/delete/update mix checked against java.util.TreeMap
+    static void stressTestRegistry(int operations, long seed) {
+        System.out.println("\n=== AVL Stress Test vs TreeMap (" + operations + " ops) ===");
+        Random random = new Random(seed);
+        StudentAVL tree = new StudentAVL();
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        int keyRange = operations / 2;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            int id = random.nextInt(keyRange);
+            int action = random.nextInt(10);
+            boolean ok;
+            if (action < 5) {
+                ok = tree.put(id, "S" + id) == (expected.putIfAbsent(id, "S" + id) == null);
+            } else if (action < 8) {
+                ok = tree.delete(id) == (expected.remove(id) != null);
+            } else {
+                boolean present = expected.containsKey(id);
+                if (present) expected.put(id, "R" + id);
+                ok = tree.update(id, "R" + id) == present;
+            }
+            if (!ok) {
+                System.out.println("✗ Mismatch at operation " + i + " (ID " + id + ")");
+                return;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (int id = 0; id < keyRange; id++) {
+            AVLNode node = tree.search(id);
+            String name = (node == null) ? null : node.name;
+            if (name == null ? expected.containsKey(id) : !name.equals(expected.get(id))) {
+                System.out.println("✗ Final contents differ at ID " + id);
+                return;
+            }
+        }
+        System.out.println("✓ Matches TreeMap (" + tree.size() + " students, balanced: " +
+                tree.isBalanced() + ")");
+        System.out.printf("Throughput: %.0f ops/sec%n", operations / (elapsed / 1e9));
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@
 // HashMap provides O(1) average time for search, insert, and delete operations
 
 import java.util.*;
+import java.util.function.IntConsumer;
 
 // Student Profile with interests
 class InterestStudent {
@@ -156,120 +157,544 @@ class CourseEnrollment {
     }
 }
 
-// Interest Matching System using HashMap
+// ========== COMPRESSED BITMAPS (ROARING-STYLE) ==========
+// A set of dense int IDs split by the high 16 bits into chunks of 65,536.
+// Each chunk is stored in whichever container is smaller:
+// - ArrayContainer: sorted 16-bit values, for chunks with <= 4096 members
+// - BitsetContainer: 1024 longs (8 KB) with one bit per possible member
+// AND/OR work chunk by chunk, so "ML AND Robotics" only touches chunks both
+// interests have, and bitset chunks combine 64 students per instruction.
+abstract class RoaringContainer {
+    static final int ARRAY_LIMIT = 4096;
+
+    abstract RoaringContainer add(char low);      // May return a converted container
+    abstract RoaringContainer remove(char low);
+    abstract boolean contains(char low);
+    abstract int cardinality();
+    abstract RoaringContainer and(RoaringContainer other);
+    abstract RoaringContainer or(RoaringContainer other);
+    abstract void forEach(int high, IntConsumer action);
+}
+
+class ArrayContainer extends RoaringContainer {
+    char[] values;
+    int cardinality;
+
+    ArrayContainer() {
+        this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+        this.values = values;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    RoaringContainer add(char low) {
+        int index = Arrays.binarySearch(values, 0, cardinality, low);
+        if (index >= 0) return this;
+        if (cardinality == ARRAY_LIMIT) {
+            return toBitset().add(low);
+        }
+        index = -index - 1;
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, values.length * 2));
+        }
+        System.arraycopy(values, index, values, index + 1, cardinality - index);
+        values[index] = low;
+        cardinality++;
+        return this;
+    }
+
+    @Override
+    RoaringContainer remove(char low) {
+        int index = Arrays.binarySearch(values, 0, cardinality, low);
+        if (index >= 0) {
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+        }
+        return this;
+    }
+
+    @Override
+    boolean contains(char low) {
+        return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    RoaringContainer and(RoaringContainer other) {
+        char[] result = new char[Math.min(cardinality, other.cardinality())];
+        int count = 0;
+        if (other instanceof ArrayContainer) {
+            // Merge two sorted lists
+            ArrayContainer array = (ArrayContainer) other;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < array.cardinality) {
+                if (values[i] < array.values[j]) i++;
+                else if (values[i] > array.values[j]) j++;
+                else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+        } else {
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) result[count++] = values[i];
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    RoaringContainer or(RoaringContainer other) {
+        if (other instanceof BitsetContainer) return other.or(this);
+        ArrayContainer array = (ArrayContainer) other;
+        char[] result = new char[cardinality + array.cardinality];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < cardinality || j < array.cardinality) {
+            if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                result[count++] = values[i++];
+            } else if (i == cardinality || values[i] > array.values[j]) {
+                result[count++] = array.values[j++];
+            } else {
+                result[count++] = values[i++];
+                j++;
+            }
+        }
+        ArrayContainer union = new ArrayContainer(result, count);
+        return (count > ARRAY_LIMIT) ? union.toBitset() : union;
+    }
+
+    @Override
+    void forEach(int high, IntConsumer action) {
+        for (int i = 0; i < cardinality; i++) {
+            action.accept(high | values[i]);
+        }
+    }
+
+    BitsetContainer toBitset() {
+        BitsetContainer bitset = new BitsetContainer();
+        for (int i = 0; i < cardinality; i++) {
+            bitset.add(values[i]);
+        }
+        return bitset;
+    }
+}
+
+class BitsetContainer extends RoaringContainer {
+    final long[] words = new long[1024];
+    int cardinality;
+
+    @Override
+    RoaringContainer add(char low) {
+        long before = words[low >>> 6];
+        words[low >>> 6] = before | (1L << low);
+        if (before != words[low >>> 6]) cardinality++;
+        return this;
+    }
+
+    @Override
+    RoaringContainer remove(char low) {
+        long before = words[low >>> 6];
+        words[low >>> 6] = before & ~(1L << low);
+        if (before != words[low >>> 6]) cardinality--;
+        return (cardinality <= ARRAY_LIMIT) ? toArray() : this;
+    }
+
+    @Override
+    boolean contains(char low) {
+        return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    RoaringContainer and(RoaringContainer other) {
+        if (other instanceof ArrayContainer) return other.and(this);
+        BitsetContainer bitset = (BitsetContainer) other;
+        BitsetContainer result = new BitsetContainer();
+        for (int w = 0; w < words.length; w++) {
+            result.words[w] = words[w] & bitset.words[w];
+            result.cardinality += Long.bitCount(result.words[w]);
+        }
+        return (result.cardinality <= ARRAY_LIMIT) ? result.toArray() : result;
+    }
+
+    @Override
+    RoaringContainer or(RoaringContainer other) {
+        BitsetContainer result = new BitsetContainer();
+        System.arraycopy(words, 0, result.words, 0, words.length);
+        result.cardinality = cardinality;
+        if (other instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) other;
+            for (int i = 0; i < array.cardinality; i++) {
+                result.add(array.values[i]);
+            }
+        } else {
+            BitsetContainer bitset = (BitsetContainer) other;
+            result.cardinality = 0;
+            for (int w = 0; w < words.length; w++) {
+                result.words[w] |= bitset.words[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    void forEach(int high, IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;  // Clear lowest set bit
+            }
+        }
+    }
+
+    ArrayContainer toArray() {
+        char[] values = new char[cardinality];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[count++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, count);
+    }
+}
+
+// Set of non-negative ints: sorted chunk keys (high 16 bits) with one container each
+class RoaringBitmap {
+    private char[] keys = new char[4];
+    private RoaringContainer[] containers = new RoaringContainer[4];
+    private int chunks = 0;
+
+    public void add(int value) {
+        char high = (char) (value >>> 16);
+        int index = Arrays.binarySearch(keys, 0, chunks, high);
+        if (index < 0) {
+            index = -index - 1;
+            if (chunks == keys.length) {
+                keys = Arrays.copyOf(keys, chunks * 2);
+                containers = Arrays.copyOf(containers, chunks * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, chunks - index);
+            System.arraycopy(containers, index, containers, index + 1, chunks - index);
+            keys[index] = high;
+            containers[index] = new ArrayContainer();
+            chunks++;
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+
+    public void remove(int value) {
+        int index = Arrays.binarySearch(keys, 0, chunks, (char) (value >>> 16));
+        if (index < 0) return;
+        containers[index] = containers[index].remove((char) value);
+        if (containers[index].cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, chunks - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, chunks - index - 1);
+            chunks--;
+        }
+    }
+
+    public boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, chunks, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < chunks; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return chunks == 0;
+    }
+
+    // Ascending order, no boxing
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunks; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.chunks && j < b.chunks) {
+            if (a.keys[i] < b.keys[j]) i++;
+            else if (a.keys[i] > b.keys[j]) j++;
+            else {
+                RoaringContainer both = a.containers[i].and(b.containers[j]);
+                if (both.cardinality() > 0) result.append(a.keys[i], both);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.chunks || j < b.chunks) {
+            if (j == b.chunks || (i < a.chunks && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i].or(new ArrayContainer()));  // Copy
+                i++;
+            } else if (i == a.chunks || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j].or(new ArrayContainer()));
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Chunks arrive in ascending key order
+    private void append(char key, RoaringContainer container) {
+        if (chunks == keys.length) {
+            keys = Arrays.copyOf(keys, chunks * 2);
+            containers = Arrays.copyOf(containers, chunks * 2);
+        }
+        keys[chunks] = key;
+        containers[chunks++] = container;
+    }
+}
+
+// Interest Matching System using HashMap + interned IDs + compressed bitmaps
+// Interests and students are interned to dense ints (0, 1, 2, ...) once, via
+// HashMaps. Each interest's members are a RoaringBitmap of student indexes,
+// so matching counts with a plain int[] and set queries are bitmap AND/OR.
 class InterestMatcher {
-    // HashMap: interest -> List of students who have that interest
-    private HashMap<String, ArrayList<InterestStudent>> interestGroups;
+    // HashMap: interest -> dense interest index (and back)
+    private HashMap<String, Integer> interestIndex;
+    private ArrayList<String> interestNames;
+
+    // Postings: interest index -> bitmap of student indexes
+    private ArrayList<RoaringBitmap> interestGroups;
 
-    // HashMap: studentId -> Student object
-    private HashMap<String, InterestStudent> studentRegistry;
+    // HashMap: studentId -> dense student index (and index -> Student object)
+    private HashMap<String, Integer> studentIndex;
+    private ArrayList<InterestStudent> studentRegistry;
+
+    // Student index -> distinct interest indexes it is posted under. Kept apart from
+    // InterestStudent's list, which may repeat an interest or change after registration.
+    private ArrayList<int[]> studentInterests;
+
+    // Reused match counters (one slot per student), zeroed after every query
+    private int[] matchCounts;
+    private int[] touched;       // Students with a non-zero counter in this query
+    private int touchedCount;
 
     public InterestMatcher() {
-        interestGroups = new HashMap<>();
-        studentRegistry = new HashMap<>();
+        interestIndex = new HashMap<>();
+        interestNames = new ArrayList<>();
+        interestGroups = new ArrayList<>();
+        studentIndex = new HashMap<>();
+        studentRegistry = new ArrayList<>();
+        studentInterests = new ArrayList<>();
+        matchCounts = new int[16];
+        touched = new int[16];
     }
 
     // Register a student
     public void registerStudent(InterestStudent student) {
-        studentRegistry.put(student.getStudentId(), student);
+        putStudent(student);
+        System.out.println("✓ Registered: " + student.getName());
+    }
 
-        // Add student to interest groups
-        for (String interest : student.getInterests()) {
-            if (!interestGroups.containsKey(interest)) {
-                interestGroups.put(interest, new ArrayList<>());
+    // Register without console output
+    public void putStudent(InterestStudent student) {
+        Integer index = studentIndex.get(student.getStudentId());
+        if (index == null) {
+            index = studentRegistry.size();
+            studentIndex.put(student.getStudentId(), index);
+            studentRegistry.add(student);
+            studentInterests.add(new int[0]);
+            if (index == matchCounts.length) {
+                matchCounts = Arrays.copyOf(matchCounts, index * 2);
+                touched = Arrays.copyOf(touched, index * 2);
             }
-            interestGroups.get(interest).add(student);
+        } else {
+            // Re-registration: drop the postings made last time before adding the new ones
+            for (int id : studentInterests.get(index)) {
+                interestGroups.get(id).remove(index);
+            }
+            studentRegistry.set(index, student);
         }
 
-        System.out.println("✓ Registered: " + student.getName());
+        // Add student to interest groups, each interest once
+        List<String> interests = student.getInterests();
+        int[] ids = new int[interests.size()];
+        int distinct = 0;
+        for (String interest : interests) {
+            int id = internInterest(interest);
+            if (interestGroups.get(id).contains(index)) continue;  // Listed twice
+            interestGroups.get(id).add(index);
+            ids[distinct++] = id;
+        }
+        studentInterests.set(index, Arrays.copyOf(ids, distinct));
     }
 
     // Find students with similar interests
     public void findMatches(String studentId) {
-        if (!studentRegistry.containsKey(studentId)) {
+        if (!studentIndex.containsKey(studentId)) {
             System.out.println("✗ Student not found!");
             return;
         }
 
-        InterestStudent student = studentRegistry.get(studentId);
+        InterestStudent student = studentRegistry.get(studentIndex.get(studentId));
         System.out.println("\n=== Matches for " + student.getName() + " ===");
 
-        // Count matches with other students
-        HashMap<String, Integer> matchCounts = new HashMap<>();
-
-        for (String interest : student.getInterests()) {
-            ArrayList<InterestStudent> group = interestGroups.get(interest);
-
-            for (InterestStudent other : group) {
-                if (!other.getStudentId().equals(studentId)) {
-                    String otherId = other.getStudentId();
-                    matchCounts.put(otherId, matchCounts.getOrDefault(otherId, 0) + 1);
-                }
-            }
-        }
-
-        // Sort by match count (descending)
-        List<Map.Entry<String, Integer>> sortedMatches = new ArrayList<>(matchCounts.entrySet());
-        sortedMatches.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+        LinkedHashMap<String, Integer> matches = topMatches(studentId, Integer.MAX_VALUE);
 
         // Display matches
-        if (sortedMatches.isEmpty()) {
+        if (matches.isEmpty()) {
             System.out.println("No matches found.");
         } else {
-            for (Map.Entry<String, Integer> entry : sortedMatches) {
-                InterestStudent match = studentRegistry.get(entry.getKey());
+            for (Map.Entry<String, Integer> entry : matches.entrySet()) {
+                InterestStudent match = studentRegistry.get(studentIndex.get(entry.getKey()));
                 System.out.println("• " + match.getName() + " - " +
                         entry.getValue() + " shared interest(s)");
             }
         }
     }
 
+    // Best matches first: studentId -> shared interests (most shared first, then registration order)
+    public LinkedHashMap<String, Integer> topMatches(String studentId, int limit) {
+        LinkedHashMap<String, Integer> result = new LinkedHashMap<>();
+        Integer self = studentIndex.get(studentId);
+        if (self == null) return result;
+
+        // Count shared interests in primitive counters; remember who was touched
+        touchedCount = 0;
+        int[] ids = studentInterests.get(self);
+        int most = ids.length;
+        for (int id : ids) {
+            interestGroups.get(id).forEach(this::countMatch);
+        }
+
+        // Sort key: fewer missing interests first, then lower index (registration order)
+        long[] ranked = new long[touchedCount];
+        int candidates = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int other = touched[i];
+            if (other != self) ranked[candidates++] = ((long) (most - matchCounts[other]) << 32) | other;
+        }
+        Arrays.sort(ranked, 0, candidates);
+        for (int i = 0; i < candidates && result.size() < limit; i++) {
+            int other = (int) ranked[i];
+            result.put(studentRegistry.get(other).getStudentId(), most - (int) (ranked[i] >>> 32));
+        }
+
+        for (int i = 0; i < touchedCount; i++) {
+            matchCounts[touched[i]] = 0;  // Ready for the next query
+        }
+        return result;
+    }
+
+    // Students with every one of the interests ("Machine Learning" AND "Robotics")
+    public List<InterestStudent> findStudentsWithAll(String... interests) {
+        RoaringBitmap result = null;
+        for (String interest : interests) {
+            RoaringBitmap group = postings(interest);
+            result = (result == null) ? group : RoaringBitmap.and(result, group);
+            if (result.isEmpty()) break;
+        }
+        return toStudents(result);
+    }
+
+    // Students with at least one of the interests (OR)
+    public List<InterestStudent> findStudentsWithAny(String... interests) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (String interest : interests) {
+            result = RoaringBitmap.or(result, postings(interest));
+        }
+        return toStudents(result);
+    }
+
+    // Number of students in an interest group (bitmap cardinality, no listing)
+    public int countInterested(String interest) {
+        return postings(interest).cardinality();
+    }
+
     // Display all students in an interest group
     public void displayInterestGroup(String interest) {
-        if (!interestGroups.containsKey(interest)) {
+        RoaringBitmap group = postings(interest);
+        if (group.isEmpty()) {
             System.out.println("✗ No students with interest: " + interest);
             return;
         }
 
         System.out.println("\n=== Students interested in " + interest + " ===");
-        ArrayList<InterestStudent> group = interestGroups.get(interest);
+        List<InterestStudent> members = toStudents(group);
 
-        for (int i = 0; i < group.size(); i++) {
-            System.out.println((i + 1) + ". " + group.get(i).getName());
+        for (int i = 0; i < members.size(); i++) {
+            System.out.println((i + 1) + ". " + members.get(i).getName());
         }
     }
 
-    // Display all interests using entrySet()
+    // Display all interests (in the order they were first seen)
     public void displayAllInterests() {
         System.out.println("\n=== All Interest Groups ===");
 
-        // entrySet() returns all key-value pairs
-        Set<Map.Entry<String, ArrayList<InterestStudent>>> entries = interestGroups.entrySet();
-
         int count = 1;
-        for (Map.Entry<String, ArrayList<InterestStudent>> entry : entries) {
-            System.out.println(count + ". " + entry.getKey() + " (" +
-                    entry.getValue().size() + " students)");
+        for (int id = 0; id < interestNames.size(); id++) {
+            RoaringBitmap group = interestGroups.get(id);
+            if (group.isEmpty()) continue;  // Every member removed it
+            System.out.println(count + ". " + interestNames.get(id) + " (" +
+                    group.cardinality() + " students)");
             count++;
         }
     }
 
     // Remove student's interest
     public void removeInterest(String studentId, String interest) {
-        if (!studentRegistry.containsKey(studentId)) {
+        if (!studentIndex.containsKey(studentId)) {
             System.out.println("✗ Student not found!");
             return;
         }
 
-        InterestStudent student = studentRegistry.get(studentId);
+        int index = studentIndex.get(studentId);
+        InterestStudent student = studentRegistry.get(index);
         student.getInterests().remove(interest);
 
-        if (interestGroups.containsKey(interest)) {
-            interestGroups.get(interest).remove(student);
-
-            // Remove empty interest groups
-            if (interestGroups.get(interest).isEmpty()) {
-                interestGroups.remove(interest);  // remove(key)
+        // Leave the posting while another copy of the interest is still listed
+        Integer id = interestIndex.get(interest);
+        if (id != null && !student.getInterests().contains(interest)) {
+            interestGroups.get(id).remove(index);
+            int[] ids = studentInterests.get(index);
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    int[] rest = Arrays.copyOf(ids, ids.length - 1);
+                    System.arraycopy(ids, i + 1, rest, i, ids.length - i - 1);
+                    studentInterests.set(index, rest);
+                    break;
+                }
             }
         }
 
@@ -278,19 +703,52 @@ class InterestMatcher {
 
     // Clear all data
     public void clearAll() {
-        studentRegistry.clear();  // clear() removes all entries
+        studentIndex.clear();  // clear() removes all entries
+        studentRegistry.clear();
+        studentInterests.clear();
+        interestIndex.clear();
+        interestNames.clear();
         interestGroups.clear();
+        matchCounts = new int[16];
+        touched = new int[16];
         System.out.println("✓ All data cleared!");
     }
 
     // Check if student exists
     public boolean hasStudent(String studentId) {
-        return studentRegistry.containsKey(studentId);  // containsKey()
+        return studentIndex.containsKey(studentId);  // containsKey()
     }
 
     // Get student count
     public int getStudentCount() {
-        return studentRegistry.size();  // size()
+        return studentIndex.size();  // size()
+    }
+
+    private void countMatch(int other) {
+        if (matchCounts[other]++ == 0) touched[touchedCount++] = other;
+    }
+
+    private int internInterest(String interest) {
+        Integer id = interestIndex.get(interest);
+        if (id == null) {
+            id = interestNames.size();
+            interestIndex.put(interest, id);
+            interestNames.add(interest);
+            interestGroups.add(new RoaringBitmap());
+        }
+        return id;
+    }
+
+    // Members of an interest (an empty bitmap if nobody has it)
+    private RoaringBitmap postings(String interest) {
+        Integer id = interestIndex.get(interest);
+        return (id == null) ? new RoaringBitmap() : interestGroups.get(id);
+    }
+
+    private List<InterestStudent> toStudents(RoaringBitmap members) {
+        List<InterestStudent> students = new ArrayList<>();
+        if (members != null) members.forEach(index -> students.add(studentRegistry.get(index)));
+        return students;
     }
 }
 
@@ -373,6 +831,41 @@ public class CampusSocialNetworkModule5 {
 
         System.out.println("\nTotal students: " + matcher.getStudentCount());
 
+        // Set operations come straight from bitmap AND / OR
+        System.out.println("Machine Learning AND Robotics: " +
+                names(matcher.findStudentsWithAll("Machine Learning", "Robotics")));
+        System.out.println("Data Science OR Mobile Apps: " +
+                names(matcher.findStudentsWithAny("Data Science", "Mobile Apps")));
+
+        System.out.println("\n=== INTEREST INDEX AT CAMPUS SCALE ===\n");
+
+        InterestMatcher campus = new InterestMatcher();
+        String[] topics = new String[200];
+        for (int t = 0; t < topics.length; t++) topics[t] = "Topic " + t;
+        topics[0] = "Gaming";
+        topics[1] = "Machine Learning";
+        topics[2] = "Robotics";
+        Random random = new Random(50);
+        for (int i = 0; i < 100_000; i++) {
+            InterestStudent student = new InterestStudent("Student " + i, String.valueOf(3000000 + i), "CS");
+            if (random.nextInt(2) == 0) student.addInterest("Gaming");  // Very popular
+            for (int k = 0; k < 4; k++) {
+                // Skewed: low-numbered topics are far more common
+                student.addInterest(topics[1 + (int) (Math.pow(random.nextDouble(), 3) * (topics.length - 1))]);
+            }
+            campus.putStudent(student);
+        }
+        long start = System.nanoTime();
+        int both = campus.findStudentsWithAll("Machine Learning", "Robotics").size();
+        long andNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        LinkedHashMap<String, Integer> best = campus.topMatches("3000000", 3);
+        long matchNanos = System.nanoTime() - start;
+        System.out.println("Gaming: " + campus.countInterested("Gaming") + " students, ML: " +
+                campus.countInterested("Machine Learning") + ", Robotics: " + campus.countInterested("Robotics"));
+        System.out.printf("ML AND Robotics: %d students (%.2f ms)%n", both, andNanos / 1e6);
+        System.out.printf("Top matches for 3000000: %s (%.2f ms)%n", best, matchNanos / 1e6);
+
         System.out.println("\n=== HASHMAP KEY CONCEPTS ===");
         System.out.println("• put(key, value): Add or update entry");
         System.out.println("• get(key): Retrieve value by key");
@@ -384,4 +877,10 @@ public class CampusSocialNetworkModule5 {
         System.out.println("• clear(): Remove all entries");
         System.out.println("• Average time complexity: O(1) for all operations!");
     }
+
+    private static List<String> names(List<InterestStudent> students) {
+        List<String> names = new ArrayList<>();
+        for (InterestStudent student : students) names.add(student.getName());
+        return names;
+    }
 }
\ No newline at end of file
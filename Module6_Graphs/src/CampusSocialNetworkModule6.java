@@ -1,7 +1,26 @@
 // Module 6: Graphs - Campus Social Network
 // Demonstrates directed/undirected graphs, weighted edges, adjacency matrix, adjacency list, BFS, DFS
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 // Edge class for weighted graphs
 class Edge {
@@ -126,6 +145,192 @@ class AdjacencyMatrixGraph {
 
         return matrix[fromIndex][toIndex] > 0;
     }
+
+    // All-pairs shortest paths, treating each weight as a distance
+    public AllPairsShortestPaths allPairsShortestPaths() {
+        return new AllPairsShortestPaths(vertices, matrix);
+    }
+}
+
+// ========== ALL-PAIRS SHORTEST PATHS (BLOCKED FLOYD-WARSHALL) ==========
+// Distances live in one flat int[] (row i starts at i * n) split into square tiles.
+// For every diagonal tile k the algorithm runs three phases:
+//   1. Update tile (k, k) using only itself
+//   2. Update every tile in row k and column k (in parallel) using tile (k, k)
+//   3. Update every remaining tile (in parallel) using its row-k and column-k tiles
+// Tiles fit in cache, so each phase streams through memory instead of jumping rows.
+
+class AllPairsShortestPaths {
+    static final int INF = Integer.MAX_VALUE / 2;  // "No path" (safe to add twice)
+    private static final int TILE = 64;             // 64 x 64 ints = 16 KB per tile
+
+    private final String[] vertices;
+    private final int n;
+    private final int[] dist;   // dist[i * n + j] = shortest distance from i to j
+    private final short[] via;  // via[i * n + j] = intermediate vertex + 1 (0 = direct edge)
+
+    public AllPairsShortestPaths(String[] vertices, int[][] matrix) {
+        if (vertices.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many vertices for the path table: " + vertices.length);
+        }
+        this.vertices = vertices;
+        this.n = vertices.length;
+        this.dist = new int[n * n];
+        this.via = new short[n * n];
+
+        // Copy the matrix into the flat array (0 means no edge)
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int w = matrix[i][j];
+                dist[i * n + j] = (i == j) ? 0 : (w > 0 ? w : INF);
+            }
+        }
+
+        solve();
+    }
+
+    private void solve() {
+        int tiles = (n + TILE - 1) / TILE;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        for (int k = 0; k < tiles; k++) {
+            // Phase 1: diagonal tile
+            relaxTile(k, k, k);
+
+            // Phase 2: rest of row k and column k
+            int[] rowCol = new int[2 * (tiles - 1) * 2];
+            int count = 0;
+            for (int t = 0; t < tiles; t++) {
+                if (t == k) continue;
+                rowCol[count++] = k;
+                rowCol[count++] = t;
+                rowCol[count++] = t;
+                rowCol[count++] = k;
+            }
+            pool.invoke(new TileTask(k, rowCol, 0, count / 2));
+
+            // Phase 3: every other tile
+            int[] rest = new int[2 * (tiles - 1) * (tiles - 1)];
+            count = 0;
+            for (int i = 0; i < tiles; i++) {
+                if (i == k) continue;
+                for (int j = 0; j < tiles; j++) {
+                    if (j == k) continue;
+                    rest[count++] = i;
+                    rest[count++] = j;
+                }
+            }
+            pool.invoke(new TileTask(k, rest, 0, count / 2));
+        }
+    }
+
+    // Relax tile (ti, tj) through every intermediate vertex of tile tk
+    private void relaxTile(int ti, int tj, int tk) {
+        int kStart = tk * TILE, kEnd = Math.min(kStart + TILE, n);
+        int iStart = ti * TILE, iEnd = Math.min(iStart + TILE, n);
+        int jStart = tj * TILE, jEnd = Math.min(jStart + TILE, n);
+
+        for (int k = kStart; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = iStart; i < iEnd; i++) {
+                int iRow = i * n;
+                int dik = dist[iRow + k];
+                if (dik == INF) continue;
+
+                for (int j = jStart; j < jEnd; j++) {
+                    int candidate = dik + dist[kRow + j];
+                    if (candidate < dist[iRow + j]) {
+                        dist[iRow + j] = candidate;
+                        via[iRow + j] = (short) (k + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    // Fork-join task over a list of (tileRow, tileCol) pairs
+    private class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int tk;
+        private final int[] pairs;
+        private final int from, to;  // Pair range [from, to)
+
+        TileTask(int tk, int[] pairs, int from, int to) {
+            this.tk = tk;
+            this.pairs = pairs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 2) {
+                for (int p = from; p < to; p++) {
+                    relaxTile(pairs[2 * p], pairs[2 * p + 1], tk);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TileTask(tk, pairs, from, mid), new TileTask(tk, pairs, mid, to));
+        }
+    }
+
+    private int getIndex(String vertex) {
+        for (int i = 0; i < n; i++) {
+            if (vertices[i].equals(vertex)) return i;
+        }
+        return -1;
+    }
+
+    // Shortest distance, or -1 if no path exists
+    public int getDistance(String from, String to) {
+        int i = getIndex(from);
+        int j = getIndex(to);
+        if (i == -1 || j == -1) return -1;
+
+        int d = dist[i * n + j];
+        return d >= INF ? -1 : d;
+    }
+
+    // Rebuild the path by expanding intermediate vertices (empty list if no path)
+    public List<String> getPath(String from, String to) {
+        List<String> path = new ArrayList<>();
+        int i = getIndex(from);
+        int j = getIndex(to);
+        if (i == -1 || j == -1 || dist[i * n + j] >= INF) return path;
+
+        path.add(vertices[i]);
+        if (i == j) return path;
+
+        // Explicit stack of (from, to) segments still to expand
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{i, j});
+        while (!stack.isEmpty()) {
+            int[] segment = stack.pop();
+            int mid = via[segment[0] * n + segment[1]] - 1;
+
+            if (mid < 0) {
+                path.add(vertices[segment[1]]);  // Direct edge
+            } else {
+                stack.push(new int[]{mid, segment[1]});  // Expanded second
+                stack.push(new int[]{segment[0], mid});  // Expanded first
+            }
+        }
+        return path;
+    }
+
+    // Copy of the full distance matrix (INF replaced by -1)
+    public int[][] getDistanceMatrix() {
+        int[][] result = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int d = dist[i * n + j];
+                result[i][j] = d >= INF ? -1 : d;
+            }
+        }
+        return result;
+    }
 }
 
 // ========== ADJACENCY LIST REPRESENTATION ==========
@@ -438,71 +643,2437 @@ class SocialGraph {
         System.out.println("Path: " + String.join(" -> ", path));
         System.out.println("Distance: " + (path.size() - 1) + " connections");
     }
+
+    // Mutual-friend counts for every pair in a group (bit-matrix AND + popcount)
+    public CommonFriendsMatrix commonFriendCounts(List<String> students) {
+        List<ArrayList<Edge>> neighborLists = new ArrayList<>();
+        for (String student : students) {
+            ArrayList<Edge> edges = adjacencyList.get(student);
+            neighborLists.add(edges != null ? edges : new ArrayList<>());
+        }
+        return new CommonFriendsMatrix(students, neighborLists);
+    }
+
+    // All students in the graph
+    public Set<String> getStudents() {
+        return adjacencyList.keySet();
+    }
+
+    // Outgoing connections of a student (empty if unknown)
+    public List<Edge> getConnections(String student) {
+        ArrayList<Edge> edges = adjacencyList.get(student);
+        return edges != null ? edges : Collections.emptyList();
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    // Core number of every student (bucket-based k-core decomposition)
+    public CoreDecomposition coreDecomposition() {
+        return coreDecomposition(false);
+    }
+
+    // Parallel variant (iterated h-index) for very large graphs
+    public CoreDecomposition coreDecomposition(boolean parallel) {
+        return new CoreDecomposition(CsrGraph.fromSocialGraph(this), parallel);
+    }
+
+    // Induced subgraph on the students whose core number is at least k
+    public SocialGraph kCoreSubgraph(int k) {
+        CoreDecomposition cores = coreDecomposition();
+        SocialGraph core = new SocialGraph(isDirected);
+
+        for (String student : adjacencyList.keySet()) {
+            if (cores.getCore(student) >= k) {
+                core.adjacencyList.put(student, new ArrayList<>());
+            }
+        }
+        for (String student : core.adjacencyList.keySet()) {
+            for (Edge edge : adjacencyList.get(student)) {
+                if (core.adjacencyList.containsKey(edge.destination)) {
+                    core.adjacencyList.get(student).add(new Edge(edge.destination, edge.weight));
+                }
+            }
+        }
+        return core;
+    }
+
+    // Maximum (or minimum) spanning forest over Edge.weight
+    // Kruskal by default; Boruvka spreads the work across cores for big graphs
+    public SpanningForest spanningForest(boolean maximum, boolean useBoruvka) {
+        return new SpanningForest(CsrGraph.fromSocialGraph(this), maximum, useBoruvka);
+    }
+
+    // WebGraph-style compressed copy for archiving large friendship graphs
+    public CompressedGraph compress() {
+        return new CompressedGraph(CsrGraph.fromSocialGraph(this));
+    }
+
+    // Hybrid copy: dense clusters as bit-matrix tiles, the rest as lists
+    public HybridGraph toHybrid() {
+        CsrGraph csr = CsrGraph.fromSocialGraph(this);
+        HybridGraph hybrid = new HybridGraph(isDirected);
+
+        // Add students in BFS order so friends get nearby ids (clusters share tiles)
+        boolean[] seen = new boolean[csr.vertexCount()];
+        int[] queue = new int[csr.vertexCount()];
+        for (int start = 0; start < csr.vertexCount(); start++) {
+            if (seen[start]) continue;
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            seen[start] = true;
+            while (head < tail) {
+                int v = queue[head++];
+                hybrid.addVertex(csr.names[v]);
+                for (int e = csr.offsets[v]; e < csr.offsets[v + 1]; e++) {
+                    if (!seen[csr.targets[e]]) {
+                        seen[csr.targets[e]] = true;
+                        queue[tail++] = csr.targets[e];
+                    }
+                }
+            }
+        }
+        for (String student : adjacencyList.keySet()) {
+            for (Edge edge : adjacencyList.get(student)) {
+                hybrid.addEdge(student, edge.destination);
+            }
+        }
+        return hybrid;
+    }
+
+    // Build a graph straight from a CSR snapshot (no per-edge console output)
+    public static SocialGraph fromCsr(CsrGraph csr) {
+        SocialGraph graph = new SocialGraph(csr.isDirected);
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            ArrayList<Edge> edges = new ArrayList<>(csr.degree(v));
+            for (int e = csr.offsets[v]; e < csr.offsets[v + 1]; e++) {
+                edges.add(new Edge(csr.names[csr.targets[e]], csr.weights[e]));
+            }
+            graph.adjacencyList.put(csr.names[v], edges);
+        }
+        return graph;
+    }
+
+    // ===== Cancellable analytics (for GraphJobScheduler) =====
+    // Iterative versions that call context.checkpoint() inside the loops, so a
+    // cancelled or late job stops within one vertex and drops its scratch sets.
+
+    public boolean isConnected(JobContext context) {
+        if (adjacencyList.isEmpty()) {
+            return true;
+        }
+
+        Set<String> visited = context.track(new HashSet<>());
+        Deque<String> stack = context.track(new ArrayDeque<>());
+        String start = adjacencyList.keySet().iterator().next();
+        stack.push(start);
+        visited.add(start);
+
+        while (!stack.isEmpty()) {
+            context.checkpoint();
+            context.reportProgress(visited.size(), adjacencyList.size());
+            for (Edge edge : adjacencyList.get(stack.pop())) {
+                if (visited.add(edge.destination)) {
+                    stack.push(edge.destination);
+                }
+            }
+        }
+        return visited.size() == adjacencyList.size();
+    }
+
+    public boolean hasCycle(JobContext context) {
+        // 1 = on the DFS path, 2 = finished
+        Map<String, Integer> state = context.track(new HashMap<>());
+        Deque<String> path = context.track(new ArrayDeque<>());
+        Deque<Iterator<Edge>> pending = context.track(new ArrayDeque<>());
+
+        for (String root : adjacencyList.keySet()) {
+            if (state.containsKey(root)) continue;
+            state.put(root, 1);
+            path.push(root);
+            pending.push(adjacencyList.get(root).iterator());
+
+            while (!path.isEmpty()) {
+                context.checkpoint();
+                String current = path.peek();
+                Iterator<Edge> edges = pending.peek();
+
+                if (!edges.hasNext()) {
+                    state.put(current, 2);
+                    path.pop();
+                    pending.pop();
+                    context.reportProgress(state.size(), adjacencyList.size());
+                    continue;
+                }
+
+                String neighbor = edges.next().destination;
+                Integer neighborState = state.get(neighbor);
+                if (neighborState == null) {
+                    state.put(neighbor, 1);
+                    path.push(neighbor);
+                    pending.push(adjacencyList.get(neighbor).iterator());
+                } else if (neighborState == 1) {
+                    // For undirected graphs, skip the edge back to the parent
+                    boolean isParent = !isDirected && path.size() > 1 &&
+                            neighbor.equals(secondOnPath(path));
+                    if (!isParent) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String secondOnPath(Deque<String> path) {
+        Iterator<String> it = path.iterator();
+        it.next();
+        return it.next();
+    }
+
+    // BFS levels from start (students not reached are left out).
+    // Only the queue is tracked: the levels map is the result and must outlive release().
+    public Map<String, Integer> bfsLevels(String start, JobContext context) {
+        Map<String, Integer> levels = new HashMap<>();
+        if (!adjacencyList.containsKey(start)) {
+            return levels;
+        }
+
+        Queue<String> queue = context.track(new ArrayDeque<>());
+        queue.add(start);
+        levels.put(start, 0);
+
+        while (!queue.isEmpty()) {
+            context.checkpoint();
+            String current = queue.poll();
+            int level = levels.get(current);
+            for (Edge edge : adjacencyList.get(current)) {
+                if (!levels.containsKey(edge.destination)) {
+                    levels.put(edge.destination, level + 1);
+                    queue.add(edge.destination);
+                }
+            }
+            context.reportProgress(levels.size(), adjacencyList.size());
+        }
+        return levels;
+    }
 }
 
-public class CampusSocialNetworkModule6 {
-    public static void main(String[] args) {
-        System.out.println("=== GRAPH REPRESENTATIONS ===\n");
+// ========== COMMON FRIENDS VIA BIT-MATRIX MULTIPLICATION ==========
+// Each student in the group becomes one row of bits; each distinct neighbour of
+// anyone in the group becomes one column. Common friends of A and B are then
+// bitCount(rowA AND rowB), computed 64 neighbours at a time per long word.
+// Rows are split into blocks and processed in parallel with fork-join.
+
+class CommonFriendsMatrix {
+    private static final int ROW_BLOCK = 32;  // Rows handled by one fork-join leaf
+
+    private final List<String> students;
+    private final HashMap<String, Integer> rowIndex;
+    private final int rows;
+    private final int words;     // Longs per row
+    private final long[] bits;   // Row r occupies bits[r * words .. (r + 1) * words)
+    private final int[] counts;  // counts[i * rows + j] = common friends of i and j
+
+    public CommonFriendsMatrix(List<String> students, List<ArrayList<Edge>> neighborLists) {
+        this.students = new ArrayList<>(students);
+        this.rows = students.size();
+        this.rowIndex = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            rowIndex.put(students.get(i), i);
+        }
 
-        System.out.println("--- 1. ADJACENCY MATRIX ---\n");
+        // Compact column space: only neighbours that appear in this group
+        HashMap<String, Integer> columnIndex = new HashMap<>();
+        for (ArrayList<Edge> edges : neighborLists) {
+            for (Edge edge : edges) {
+                if (!columnIndex.containsKey(edge.destination)) {
+                    columnIndex.put(edge.destination, columnIndex.size());
+                }
+            }
+        }
 
-        // Create graph with adjacency matrix
-        String[] students = {"Alice", "Bob", "Charlie", "Diana"};
-        AdjacencyMatrixGraph matrixGraph = new AdjacencyMatrixGraph(students, false);
+        this.words = (columnIndex.size() + 63) >>> 6;
+        this.bits = new long[rows * words];
+        for (int r = 0; r < rows; r++) {
+            for (Edge edge : neighborLists.get(r)) {
+                int column = columnIndex.get(edge.destination);
+                bits[r * words + (column >>> 6)] |= 1L << column;  // Shift uses low 6 bits
+            }
+        }
 
-        // Add edges
-        matrixGraph.addEdge("Alice", "Bob", 5);
-        matrixGraph.addEdge("Alice", "Charlie", 3);
-        matrixGraph.addEdge("Bob", "Diana", 4);
-        matrixGraph.addEdge("Charlie", "Diana", 5);
+        this.counts = new int[rows * rows];
+        ForkJoinPool.commonPool().invoke(new RowBlockTask(0, rows));
+    }
 
-        // Display matrix
-        matrixGraph.displayMatrix();
+    // Fills counts for rows [from, to) against every row j >= i
+    private class RowBlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
 
-        // Check properties
-        System.out.println("\nMatrix Properties:");
-        System.out.println("  Alice's degree: " + matrixGraph.getDegree("Alice"));
-        System.out.println("  Diana's degree: " + matrixGraph.getDegree("Diana"));
-        System.out.println("  Edge Alice-Bob exists? " + matrixGraph.hasEdge("Alice", "Bob"));
-        System.out.println("  Edge Alice-Diana exists? " + matrixGraph.hasEdge("Alice", "Diana"));
+        private final int from, to;
 
-        System.out.println("\n--- 2. ADJACENCY LIST ---\n");
-        System.out.println("=== UNDIRECTED GRAPH: Mutual Friendships ===\n");
+        RowBlockTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
 
-        // Create undirected graph (mutual friendships)
-        SocialGraph friendships = new SocialGraph(false);
+        @Override
+        protected void compute() {
+            if (to - from > ROW_BLOCK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowBlockTask(from, mid), new RowBlockTask(mid, to));
+                return;
+            }
 
-        // Add students and friendships
-        friendships.addEdge("Alice", "Bob", 5);      // Very close friends (5)
-        friendships.addEdge("Alice", "Charlie", 3);  // Regular friends (3)
-        friendships.addEdge("Bob", "Diana", 4);
-        friendships.addEdge("Charlie", "Diana", 5);
-        friendships.addEdge("Diana", "Eve", 3);
-        friendships.addEdge("Eve", "Frank", 4);
-        friendships.addEdge("Charlie", "Frank", 2);  // Acquaintances (2)
+            for (int i = from; i < to; i++) {
+                int iBase = i * words;
+                for (int j = i; j < rows; j++) {
+                    int jBase = j * words;
+                    int common = 0;
+                    for (int w = 0; w < words; w++) {
+                        common += Long.bitCount(bits[iBase + w] & bits[jBase + w]);
+                    }
+                    counts[i * rows + j] = common;
+                    counts[j * rows + i] = common;  // Symmetric
+                }
+            }
+        }
+    }
 
-        friendships.displayGraph();
+    // Number of common friends (a student paired with itself gives its friend count)
+    public int getCount(String a, String b) {
+        Integer i = rowIndex.get(a);
+        Integer j = rowIndex.get(b);
+        if (i == null || j == null) return 0;
+        return counts[i * rows + j];
+    }
 
-        // Degree analysis
-        System.out.println("\n=== Degree Analysis ===");
-        System.out.println("Alice's degree: " + friendships.getDegree("Alice"));
-        System.out.println("Diana's degree: " + friendships.getDegree("Diana"));
-        System.out.println("Total degree: " + friendships.getTotalDegree());
+    public List<String> getStudents() {
+        return students;
+    }
 
-        // Graph properties
-        System.out.println("\nIs connected? " + friendships.isConnected());
-        System.out.println("Has cycle? " + friendships.hasCycle());
-        System.out.println("Path Alice to Frank? " + friendships.hasPath("Alice", "Frank"));
+    // Full symmetric count matrix in the order of getStudents()
+    public int[][] toMatrix() {
+        int[][] result = new int[rows][rows];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(counts, i * rows, result[i], 0, rows);
+        }
+        return result;
+    }
+}
 
-        // BFS traversal
-        friendships.bfs("Alice");
+// ========== PERSONALIZED PAGERANK (MONTE CARLO RANDOM WALKS) ==========
+// Every student owns R precomputed random walks. A walk starts at its owner and,
+// at each step, stops with probability resetProbability or moves to a neighbour
+// chosen in proportion to Edge.weight. PPR(source, t) is estimated from how often
+// the source's walks visit t, so a query only reads R short int segments.
+// Walks are stored back to back in one int pool, each using only its own length.
+// Adding an edge u -> v re-samples only walks that pass through u: at each visit
+// the walk switches to v with probability weight / (new total weight of u).
+
+class PersonalizedPageRank {
+    private final SocialGraph graph;
+    private final int walksPerStudent;
+    private final int maxWalkLength;
+    private final double resetProbability;
+    private final Random random;
+
+    // Dense ids for students
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[16];
+    private int n = 0;
+
+    // Weighted adjacency: neighbours[v][0..degree[v]) with running weight totals
+    private int[][] neighbors = new int[16][];
+    private long[][] cumulativeWeights = new long[16][];
+    private int[] degree = new int[16];
+
+    // Walk slot s = v * walksPerStudent + r is the variable-length segment
+    // walkPool[walkOffsets[s] .. walkOffsets[s] + walkLengths[s]). A re-sampled
+    // walk that grows is appended at poolSize; the old segment becomes garbage
+    // and the pool is compacted once garbage outweighs live data.
+    private int[] walkPool = new int[64];
+    private int poolSize = 0;
+    private long garbage = 0;
+    private int[] walkOffsets = new int[0];
+    private int[] walkLengths = new int[0];
+
+    // visitors[v][0..visitorCount[v]) = slots that (may) pass through v
+    private int[][] visitors = new int[16][];
+    private int[] visitorCount = new int[16];
+
+    // Scratch space reused by queries and updates
+    private int[] visitScratch = new int[16];
+    private int[] touchedScratch = new int[16];
+    private int[] walkBuffer;
+    private int[] slotStamp = new int[0];
+    private int stamp = 0;
+    private boolean ready = false;
+
+    public PersonalizedPageRank(SocialGraph graph, int walksPerStudent,
+                                double resetProbability, long seed) {
+        if (walksPerStudent <= 0 || resetProbability <= 0 || resetProbability >= 1) {
+            throw new IllegalArgumentException("Need walksPerStudent > 0 and 0 < resetProbability < 1");
+        }
+        this.graph = graph;
+        this.walksPerStudent = walksPerStudent;
+        this.resetProbability = resetProbability;
+        // Safety cap at ~20x the expected length; walks this long are vanishingly rare
+        this.maxWalkLength = Math.max(8, (int) Math.ceil(20 / resetProbability));
+        this.walkBuffer = new int[maxWalkLength];
+        this.random = new Random(seed);
+
+        for (String student : graph.getStudents()) {
+            idOf(student);
+        }
+        for (String student : graph.getStudents()) {
+            int from = ids.get(student);
+            for (Edge edge : graph.getConnections(student)) {
+                appendNeighbor(from, idOf(edge.destination), edge.weight);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            sampleAllWalks(v);
+        }
+        ready = true;
+    }
 
-        // DFS traversal
-        friendships.dfs("Alice");
+    // Add the connection to the graph and repair only the affected walks
+    public void addEdge(String from, String to, int weight) {
+        graph.addEdge(from, to, weight);
 
-        // Find shortest path
-        friendships.findShortestPath("Alice", "Frank");
-        friendships.findShortestPath("Bob", "Eve");
+        int u = idOf(from);
+        int v = idOf(to);
+        addDirectedEdge(u, v, weight);
+        if (!graph.isDirected()) {
+            addDirectedEdge(v, u, weight);
+        }
+    }
+
+    // Top-k students by personalised score for source (source itself excluded)
+    public List<Map.Entry<String, Double>> topK(String source, int k) {
+        List<Map.Entry<String, Double>> result = new ArrayList<>();
+        Integer s = ids.get(source);
+        if (s == null || k <= 0) return result;
+
+        // Count visits in the reused dense counters, remembering touched ids
+        int touchedCount = 0;
+        for (int r = 0; r < walksPerStudent; r++) {
+            int slot = s * walksPerStudent + r;
+            int start = walkOffsets[slot];
+            int end = start + walkLengths[slot];
+            for (int p = start; p < end; p++) {
+                int node = walkPool[p];
+                if (visitScratch[node]++ == 0) {
+                    touchedScratch[touchedCount++] = node;
+                }
+            }
+        }
+
+        // Packed key: high half orders by visits (descending), low half is the id
+        long[] ranked = new long[touchedCount];
+        for (int i = 0; i < touchedCount; i++) {
+            int node = touchedScratch[i];
+            ranked[i] = ((long) (Integer.MAX_VALUE - visitScratch[node]) << 32) | node;
+        }
+        Arrays.sort(ranked);
+
+        double scale = resetProbability / walksPerStudent;
+        for (int i = 0; i < touchedCount && result.size() < k; i++) {
+            int node = (int) ranked[i];
+            if (node != s) {
+                result.add(new AbstractMap.SimpleEntry<>(names[node], visitScratch[node] * scale));
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) visitScratch[touchedScratch[i]] = 0;
+        return result;
+    }
+
+    // Estimated personalised score of target from source's point of view
+    public double score(String source, String target) {
+        Integer s = ids.get(source);
+        Integer t = ids.get(target);
+        if (s == null || t == null) return 0.0;
+
+        int visits = 0;
+        for (int r = 0; r < walksPerStudent; r++) {
+            int slot = s * walksPerStudent + r;
+            int start = walkOffsets[slot];
+            int end = start + walkLengths[slot];
+            for (int p = start; p < end; p++) {
+                if (walkPool[p] == t) visits++;
+            }
+        }
+        return visits * resetProbability / walksPerStudent;
+    }
+
+    private void addDirectedEdge(int u, int v, int weight) {
+        boolean wasDangling = degree[u] == 0;
+        appendNeighbor(u, v, weight);
+        long totalWeight = cumulativeWeights[u][degree[u] - 1];
+        double switchProbability = (double) weight / totalWeight;
+
+        // Snapshot the visitor list: re-sampled walks may register at u again
+        int[] slots = (visitors[u] == null) ? new int[0] : Arrays.copyOf(visitors[u], visitorCount[u]);
+        visitorCount[u] = 0;
+
+        stamp++;
+        for (int slot : slots) {
+            if (slotStamp[slot] == stamp) continue;  // Duplicate entry
+            slotStamp[slot] = stamp;
+
+            int start = walkOffsets[slot];
+            int length = walkLengths[slot];
+            boolean visitsU = false;
+            for (int p = 0; p < length; p++) {
+                if (walkPool[start + p] != u) continue;
+                visitsU = true;
+
+                boolean continued = p < length - 1;
+                if (continued && random.nextDouble() < switchProbability) {
+                    resampleFrom(slot, p + 1, v);
+                    break;
+                }
+                if (!continued && wasDangling) {
+                    resampleFrom(slot, p, u);  // Walk stopped only because u had no edges
+                    break;
+                }
+            }
+            if (visitsU) addVisitor(u, slot);  // Stale entries are dropped here
+        }
+    }
+
+    private void sampleAllWalks(int v) {
+        for (int r = 0; r < walksPerStudent; r++) {
+            resampleFrom(v * walksPerStudent + r, 0, v);
+        }
+    }
+
+    // Keep the walk's first `keep` steps, put `next` at position keep and sample on from there
+    private void resampleFrom(int slot, int keep, int next) {
+        System.arraycopy(walkPool, walkOffsets[slot], walkBuffer, 0, keep);
+        int p = keep;
+        int current = next;
+        walkBuffer[p] = current;
+        addVisitor(current, slot);
+
+        while (p + 1 < maxWalkLength) {
+            if (degree[current] == 0) break;                       // Dangling: walk ends
+            if (random.nextDouble() < resetProbability) break;     // Reset: walk ends
+            current = sampleNeighbor(current);
+            walkBuffer[++p] = current;
+            addVisitor(current, slot);
+        }
+        storeWalk(slot, p + 1);
+    }
+
+    // Copy walkBuffer[0..length) into the slot's segment, in place if it still fits
+    private void storeWalk(int slot, int length) {
+        int oldLength = walkLengths[slot];
+        if (length <= oldLength) {
+            garbage += oldLength - length;
+        } else {
+            garbage += oldLength;
+            walkLengths[slot] = 0;  // Old segment is dead (its prefix is already in walkBuffer)
+            if (garbage > poolSize / 2 && garbage > 1024) compactPool();
+            ensurePoolCapacity(length);
+            walkOffsets[slot] = poolSize;
+            poolSize += length;
+        }
+        System.arraycopy(walkBuffer, 0, walkPool, walkOffsets[slot], length);
+        walkLengths[slot] = length;
+    }
+
+    private void ensurePoolCapacity(int extra) {
+        long needed = (long) poolSize + extra;
+        if (needed <= walkPool.length) return;
+        if (needed > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many walk steps for one int[] pool: " + needed);
+        }
+        walkPool = Arrays.copyOf(walkPool, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * walkPool.length)));
+    }
+
+    // Rewrite the live segments back to back (slot order)
+    private void compactPool() {
+        int[] compacted = new int[Math.max(64, poolSize - (int) garbage + maxWalkLength)];
+        int size = 0;
+        for (int slot = 0; slot < walkLengths.length; slot++) {
+            int length = walkLengths[slot];
+            System.arraycopy(walkPool, walkOffsets[slot], compacted, size, length);
+            walkOffsets[slot] = size;
+            size += length;
+        }
+        walkPool = compacted;
+        poolSize = size;
+        garbage = 0;
+    }
+
+    // Pick a neighbour with probability proportional to its edge weight
+    private int sampleNeighbor(int v) {
+        long[] cumulative = cumulativeWeights[v];
+        int d = degree[v];
+        long target = (long) (random.nextDouble() * cumulative[d - 1]);
+
+        int low = 0, high = d - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > target) high = mid;
+            else low = mid + 1;
+        }
+        return neighbors[v][low];
+    }
+
+    private void appendNeighbor(int from, int to, int weight) {
+        int d = degree[from];
+        if (neighbors[from] == null) {
+            neighbors[from] = new int[4];
+            cumulativeWeights[from] = new long[4];
+        } else if (d == neighbors[from].length) {
+            neighbors[from] = Arrays.copyOf(neighbors[from], d * 2);
+            cumulativeWeights[from] = Arrays.copyOf(cumulativeWeights[from], d * 2);
+        }
+        long previous = (d == 0) ? 0 : cumulativeWeights[from][d - 1];
+        neighbors[from][d] = to;
+        cumulativeWeights[from][d] = previous + Math.max(weight, 1);  // Weight 0 still reachable
+        degree[from] = d + 1;
+    }
+
+    private void addVisitor(int v, int slot) {
+        int count = visitorCount[v];
+        if (visitors[v] == null) {
+            visitors[v] = new int[4];
+        } else if (count > 0 && visitors[v][count - 1] == slot) {
+            return;  // Same walk, consecutive visit
+        } else if (count == visitors[v].length) {
+            visitors[v] = Arrays.copyOf(visitors[v], count * 2);
+        }
+        visitors[v][count] = slot;
+        visitorCount[v] = count + 1;
+    }
+
+    // Dense id for a student, creating one (and its walks) if new
+    private int idOf(String student) {
+        Integer id = ids.get(student);
+        if (id != null) return id;
+
+        int v = n++;
+        ids.put(student, v);
+        if (v == names.length) {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+            cumulativeWeights = Arrays.copyOf(cumulativeWeights, capacity);
+            degree = Arrays.copyOf(degree, capacity);
+            visitors = Arrays.copyOf(visitors, capacity);
+            visitorCount = Arrays.copyOf(visitorCount, capacity);
+            visitScratch = Arrays.copyOf(visitScratch, capacity);
+            touchedScratch = Arrays.copyOf(touchedScratch, capacity);
+        }
+        names[v] = student;
+
+        long slots = (long) n * walksPerStudent;
+        if (slots > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many walks: " + slots);
+        }
+        if (slots > walkLengths.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(slots, 2L * walkLengths.length));
+            walkOffsets = Arrays.copyOf(walkOffsets, capacity);
+            walkLengths = Arrays.copyOf(walkLengths, capacity);
+            slotStamp = Arrays.copyOf(slotStamp, capacity);
+        }
+        // While building, walks are sampled once all edges are loaded
+        if (ready) {
+            sampleAllWalks(v);
+        }
+        return v;
+    }
+}
+
+// ========== CSR (COMPRESSED SPARSE ROW) SNAPSHOT ==========
+// Students get dense ids 0..n-1. The neighbours of v are
+// targets[offsets[v] .. offsets[v + 1]) with matching weights, so algorithms can
+// loop over plain int arrays instead of HashMap lookups and Edge objects.
+
+class CsrGraph {
+    final String[] names;
+    final HashMap<String, Integer> ids;
+    final int[] offsets;  // Length n + 1
+    final int[] targets;
+    final int[] weights;
+    final boolean isDirected;
+
+    public CsrGraph(String[] names, int[] offsets, int[] targets, int[] weights, boolean isDirected) {
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.isDirected = isDirected;
+        this.ids = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            ids.put(names[i], i);
+        }
+    }
+
+    // Snapshot of a SocialGraph (undirected graphs already store both directions)
+    public static CsrGraph fromSocialGraph(SocialGraph graph) {
+        String[] names = graph.getStudents().toArray(new String[0]);
+        HashMap<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            ids.put(names[i], i);
+        }
+
+        int[] offsets = new int[names.length + 1];
+        for (int v = 0; v < names.length; v++) {
+            offsets[v + 1] = offsets[v] + graph.getConnections(names[v]).size();
+        }
+
+        int[] targets = new int[offsets[names.length]];
+        int[] weights = new int[targets.length];
+        for (int v = 0; v < names.length; v++) {
+            int position = offsets[v];
+            for (Edge edge : graph.getConnections(names[v])) {
+                targets[position] = ids.get(edge.destination);
+                weights[position] = edge.weight;
+                position++;
+            }
+        }
+        return new CsrGraph(names, offsets, targets, weights, graph.isDirected());
+    }
+
+    public int vertexCount() {
+        return names.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    // Dense id of a student, or -1 if unknown
+    public int idOf(String student) {
+        Integer id = ids.get(student);
+        return id == null ? -1 : id;
+    }
+
+    // Simple undirected view: both directions, no duplicates, no self-loops
+    public CsrGraph toSimpleUndirected() {
+        int n = names.length;
+        int[] count = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (targets[e] != v) {
+                    count[v + 1]++;
+                    count[targets[e] + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) count[v + 1] += count[v];
+
+        int[] position = Arrays.copyOf(count, n);
+        int[] both = new int[count[n]];
+        int[] bothWeights = new int[count[n]];
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = targets[e];
+                if (u == v) continue;
+                both[position[v]] = u;
+                bothWeights[position[v]++] = weights[e];
+                both[position[u]] = v;
+                bothWeights[position[u]++] = weights[e];
+            }
+        }
+
+        // Sort each list and keep the first copy of every neighbour
+        int[] newOffsets = new int[n + 1];
+        int write = 0;
+        for (int v = 0; v < n; v++) {
+            int start = count[v], end = count[v + 1];
+            sortByTarget(both, bothWeights, start, end);
+            newOffsets[v] = write;
+            for (int e = start; e < end; e++) {
+                if (e == start || both[e] != both[e - 1]) {
+                    both[write] = both[e];
+                    bothWeights[write++] = bothWeights[e];
+                }
+            }
+        }
+        newOffsets[n] = write;
+        return new CsrGraph(names, newOffsets, Arrays.copyOf(both, write),
+                Arrays.copyOf(bothWeights, write), false);
+    }
+
+    // Insertion sort for short lists, index sort for long ones
+    private static void sortByTarget(int[] keys, int[] values, int start, int end) {
+        if (end - start <= 16) {
+            for (int i = start + 1; i < end; i++) {
+                int key = keys[i], value = values[i];
+                int j = i - 1;
+                while (j >= start && keys[j] > key) {
+                    keys[j + 1] = keys[j];
+                    values[j + 1] = values[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                values[j + 1] = value;
+            }
+            return;
+        }
+        long[] packed = new long[end - start];
+        for (int i = start; i < end; i++) {
+            packed[i - start] = ((long) keys[i] << 32) | (values[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        for (int i = start; i < end; i++) {
+            keys[i] = (int) (packed[i - start] >>> 32);
+            values[i] = (int) packed[i - start];
+        }
+    }
+}
+
+// ========== K-CORE DECOMPOSITION ==========
+// The k-core is the largest subgraph where every student has at least k friends
+// inside it; a student's core number is the largest such k.
+// Sequential: Batagelj-Zaversnik bucket sort, O(V + E). Vertices sit in an array
+// sorted by current degree; removing the lowest one moves each neighbour down one
+// bucket with a single swap.
+// Parallel: every core number is the h-index of its neighbours' core numbers.
+// Start from the degrees and recompute h-indexes in parallel until nothing changes.
+
+class CoreDecomposition {
+    private static final int PARALLEL_BLOCK = 4096;  // Vertices per fork-join leaf
+
+    private final CsrGraph graph;  // Simple undirected view
+    private final int[] core;
+
+    public CoreDecomposition(CsrGraph graph, boolean parallel) {
+        this.graph = graph.toSimpleUndirected();
+        this.core = parallel ? parallelCores() : bucketCores();
+    }
+
+    private int[] bucketCores() {
+        int n = graph.vertexCount();
+        int[] degree = new int[n];
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            degree[v] = graph.degree(v);
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+
+        // bucketStart[d] = first position of degree d in the sorted order
+        int[] bucketStart = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) bucketStart[degree[v] + 1]++;
+        for (int d = 0; d <= maxDegree; d++) bucketStart[d + 1] += bucketStart[d];
+
+        int[] order = new int[n];     // Vertices sorted by degree
+        int[] position = new int[n];  // Index of each vertex in order
+        int[] fill = Arrays.copyOf(bucketStart, maxDegree + 1);
+        for (int v = 0; v < n; v++) {
+            position[v] = fill[degree[v]]++;
+            order[position[v]] = v;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int v = order[i];  // Lowest remaining degree; degree[v] is final
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                int u = graph.targets[e];
+                if (degree[u] > degree[v]) {
+                    // Swap u with the first vertex of its bucket, then shrink the bucket
+                    int du = degree[u];
+                    int first = bucketStart[du];
+                    int w = order[first];
+                    if (w != u) {
+                        order[first] = u;
+                        order[position[u]] = w;
+                        position[w] = position[u];
+                        position[u] = first;
+                    }
+                    bucketStart[du]++;
+                    degree[u]--;
+                }
+            }
+        }
+        return degree;
+    }
+
+    private int[] parallelCores() {
+        int n = graph.vertexCount();
+        int[] current = new int[n];
+        for (int v = 0; v < n; v++) current[v] = graph.degree(v);
+
+        int[] next = new int[n];
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        while (pool.invoke(new HIndexTask(current, next, 0, n))) {
+            int[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return current;
+    }
+
+    // Recomputes next[v] = min(current[v], h-index of neighbours) for [from, to)
+    private class HIndexTask extends RecursiveTask<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] current, next;
+        private final int from, to;
+
+        HIndexTask(int[] current, int[] next, int from, int to) {
+            this.current = current;
+            this.next = next;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (to - from > PARALLEL_BLOCK) {
+                int mid = (from + to) >>> 1;
+                HIndexTask left = new HIndexTask(current, next, from, mid);
+                left.fork();
+                boolean rightChanged = new HIndexTask(current, next, mid, to).compute();
+                return left.join() | rightChanged;
+            }
+
+            boolean changed = false;
+            int[] histogram = new int[0];
+            for (int v = from; v < to; v++) {
+                int k = current[v];
+                if (histogram.length < k + 1) histogram = new int[k + 1];
+
+                // Count neighbour values, capping at k (h-index can't exceed k)
+                for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                    histogram[Math.min(current[graph.targets[e]], k)]++;
+                }
+                int atLeast = 0;
+                int h = k;
+                while (h > 0) {
+                    atLeast += histogram[h];
+                    if (atLeast >= h) break;
+                    h--;
+                }
+                Arrays.fill(histogram, 0, k + 1, 0);
+
+                next[v] = h;
+                if (h != k) changed = true;
+            }
+            return changed;
+        }
+    }
+
+    // Core numbers indexed like getStudents()
+    public int[] getCoreNumbers() {
+        return core.clone();
+    }
+
+    public String[] getStudents() {
+        return graph.names.clone();
+    }
+
+    // Core number of one student (-1 if unknown)
+    public int getCore(String student) {
+        int v = graph.idOf(student);
+        return v == -1 ? -1 : core[v];
+    }
+
+    // Largest k with a non-empty k-core
+    public int getMaxCore() {
+        int max = 0;
+        for (int c : core) max = Math.max(max, c);
+        return max;
+    }
+
+    // Students whose core number is at least k
+    public List<String> getKCoreMembers(int k) {
+        List<String> members = new ArrayList<>();
+        for (int v = 0; v < core.length; v++) {
+            if (core[v] >= k) members.add(graph.names[v]);
+        }
+        return members;
+    }
+}
+
+// ========== SPANNING FOREST (KRUSKAL / BORUVKA) ==========
+// A spanning forest keeps just enough edges to connect each component, with no
+// cycles. The maximum one keeps the strongest friendships ("closeness backbone").
+// Edges are stored as three int arrays and ordered by a packed long key
+// (weight in the high 32 bits, edge index in the low 32), so ties always break
+// the same way and both algorithms pick the same forest.
+// Kruskal: parallel-sort all keys, then add edges that join two union-find sets.
+// Boruvka: each round every component picks its best outgoing edge (in parallel,
+// with compare-and-set on a shared array), then all picked edges are merged.
+
+class ForestEdge {
+    String from;
+    String to;
+    int weight;
+
+    public ForestEdge(String from, String to, int weight) {
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+    }
+
+    @Override
+    public String toString() {
+        return from + " - " + to + " (weight: " + weight + ")";
+    }
+}
+
+class SpanningForest {
+    private static final int EDGE_BLOCK = 8192;  // Edges per fork-join leaf
+
+    private final String[] names;
+    private final HashMap<String, Integer> ids;
+    private final int[] edgeFrom, edgeTo, edgeWeight;
+    private final long[] keys;    // Sort key per edge (smaller = better)
+    private final int[] parent;   // Union-find forest
+    private final int[] size;
+    private final List<Integer> chosen = new ArrayList<>();
+
+    // Filled by summarize()
+    private int[] componentOf;
+    private long[] componentWeight;
+    private int componentCount;
+
+    public SpanningForest(CsrGraph graph, boolean maximum, boolean useBoruvka) {
+        this.names = graph.names;
+        this.ids = graph.ids;
+        int n = graph.vertexCount();
+
+        // One entry per connection (skip the mirrored copy of undirected edges)
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                int u = graph.targets[e];
+                if (u != v && (graph.isDirected || v < u)) m++;
+            }
+        }
+        edgeFrom = new int[m];
+        edgeTo = new int[m];
+        edgeWeight = new int[m];
+        keys = new long[m];
+        int i = 0;
+        for (int v = 0; v < n; v++) {
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                int u = graph.targets[e];
+                if (u != v && (graph.isDirected || v < u)) {
+                    edgeFrom[i] = v;
+                    edgeTo[i] = u;
+                    edgeWeight[i] = graph.weights[e];
+                    long rank = maximum ? -(long) graph.weights[e] : graph.weights[e];
+                    keys[i] = (rank << 32) | i;
+                    i++;
+                }
+            }
+        }
+
+        parent = new int[n];
+        size = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+
+        if (useBoruvka) {
+            boruvka();
+        } else {
+            kruskal();
+        }
+        summarize();
+    }
+
+    private void kruskal() {
+        long[] sorted = keys.clone();
+        Arrays.parallelSort(sorted);
+        int needed = names.length - 1;
+
+        for (long key : sorted) {
+            int e = (int) key;  // Low 32 bits = edge index
+            if (union(edgeFrom[e], edgeTo[e])) {
+                chosen.add(e);
+                if (chosen.size() == needed) break;  // Already a spanning tree
+            }
+        }
+    }
+
+    private void boruvka() {
+        int n = names.length;
+        int[] component = new int[n];
+        AtomicLongArray best = new AtomicLongArray(n);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        boolean merged = true;
+        while (merged) {
+            // Freeze component labels so the parallel phase only reads
+            for (int v = 0; v < n; v++) {
+                component[v] = find(v);
+                best.set(v, Long.MAX_VALUE);
+            }
+
+            pool.invoke(new BestEdgeTask(component, best, 0, keys.length));
+
+            merged = false;
+            for (int c = 0; c < n; c++) {
+                long key = best.get(c);
+                if (key == Long.MAX_VALUE) continue;
+                int e = (int) key;
+                if (union(edgeFrom[e], edgeTo[e])) {
+                    chosen.add(e);
+                    merged = true;
+                }
+            }
+        }
+    }
+
+    // Lowest key per component over edges [from, to)
+    private class BestEdgeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] component;
+        private final AtomicLongArray best;
+        private final int from, to;
+
+        BestEdgeTask(int[] component, AtomicLongArray best, int from, int to) {
+            this.component = component;
+            this.best = best;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > EDGE_BLOCK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BestEdgeTask(component, best, from, mid),
+                        new BestEdgeTask(component, best, mid, to));
+                return;
+            }
+            for (int e = from; e < to; e++) {
+                int a = component[edgeFrom[e]];
+                int b = component[edgeTo[e]];
+                if (a != b) {
+                    offer(a, keys[e]);
+                    offer(b, keys[e]);
+                }
+            }
+        }
+
+        private void offer(int c, long key) {
+            long current = best.get(c);
+            while (key < current && !best.compareAndSet(c, current, key)) {
+                current = best.get(c);
+            }
+        }
+    }
+
+    // Union-find with path halving
+    private int find(int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    // Union by size; false if already in the same set
+    private boolean union(int a, int b) {
+        int rootA = find(a), rootB = find(b);
+        if (rootA == rootB) return false;
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        return true;
+    }
+
+    // Number the components 0..k-1 and total their forest weights
+    private void summarize() {
+        int n = names.length;
+        int[] label = new int[n];
+        Arrays.fill(label, -1);
+        componentOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            int root = find(v);
+            if (label[root] == -1) label[root] = componentCount++;
+            componentOf[v] = label[root];
+        }
+        componentWeight = new long[componentCount];
+        for (int e : chosen) {
+            componentWeight[componentOf[edgeFrom[e]]] += edgeWeight[e];
+        }
+    }
+
+    public List<ForestEdge> getEdges() {
+        List<ForestEdge> edges = new ArrayList<>();
+        for (int e : chosen) {
+            edges.add(new ForestEdge(names[edgeFrom[e]], names[edgeTo[e]], edgeWeight[e]));
+        }
+        return edges;
+    }
+
+    public long getTotalWeight() {
+        long total = 0;
+        for (long w : componentWeight) total += w;
+        return total;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    // Component number of a student (-1 if unknown)
+    public int getComponent(String student) {
+        Integer v = ids.get(student);
+        return v == null ? -1 : componentOf[v];
+    }
+
+    public long getComponentWeight(int component) {
+        return componentWeight[component];
+    }
+
+    public List<ForestEdge> getComponentEdges(int component) {
+        List<ForestEdge> edges = new ArrayList<>();
+        for (int e : chosen) {
+            if (componentOf[edgeFrom[e]] == component) {
+                edges.add(new ForestEdge(names[edgeFrom[e]], names[edgeTo[e]], edgeWeight[e]));
+            }
+        }
+        return edges;
+    }
+}
+
+// ========== COMPRESSED ADJACENCY (WEBGRAPH-STYLE) ==========
+// Neighbour lists are sorted and packed into one byte[]; offsets[v] points at v's
+// record, so any vertex can be decoded without touching the others.
+// Record for vertex v (all numbers are varints: 7 bits per byte, high bit = more):
+//   degree
+//   reference   0 = none, r = "copy from the list of vertex v - r"
+//   copy blocks count, then alternating copy/skip run lengths over the
+//               referenced list (anything after the last run is skipped)
+//   residuals   neighbours not copied: first as a signed gap from v,
+//               then each as (gap - 1) from the previous one
+// Nearby students (close ids) tend to share friends, so most lists become a
+// short reference plus a few small gaps.
+
+class CompressedGraph {
+    private static final int WINDOW = 7;          // How far back to look for a reference
+    private static final int MAX_REF_CHAIN = 3;   // Bounds decode cost of chained references
+
+    private final String[] names;
+    private final HashMap<String, Integer> ids;
+    private final int[] offsets;  // Byte offset of each vertex record
+    private final byte[] data;
+    private final long edgeCount;
+
+    public CompressedGraph(CsrGraph graph) {
+        this.names = graph.names;
+        this.ids = graph.ids;
+        int n = graph.vertexCount();
+        this.offsets = new int[n];
+
+        // Sorted, duplicate-free neighbour lists
+        int[][] lists = new int[n][];
+        long edges = 0;
+        for (int v = 0; v < n; v++) {
+            int[] list = Arrays.copyOfRange(graph.targets, graph.offsets[v], graph.offsets[v + 1]);
+            Arrays.sort(list);
+            int unique = 0;
+            for (int i = 0; i < list.length; i++) {
+                if (i == 0 || list[i] != list[i - 1]) list[unique++] = list[i];
+            }
+            lists[v] = Arrays.copyOf(list, unique);
+            edges += unique;
+        }
+        this.edgeCount = edges;
+
+        ByteWriter out = new ByteWriter();
+        int[] chain = new int[n];  // Reference chain length of each vertex
+        for (int v = 0; v < n; v++) {
+            offsets[v] = out.size;
+            int[] list = lists[v];
+            out.writeVarint(list.length);
+            if (list.length == 0) continue;
+
+            // Pick the recent list that shares the most neighbours
+            int bestRef = 0, bestShared = 0;
+            for (int r = 1; r <= WINDOW && v - r >= 0; r++) {
+                if (chain[v - r] >= MAX_REF_CHAIN) continue;
+                int shared = countShared(list, lists[v - r]);
+                if (shared > bestShared) {
+                    bestShared = shared;
+                    bestRef = r;
+                }
+            }
+
+            boolean[] copied = new boolean[list.length];
+            out.writeVarint(bestRef);
+            if (bestRef > 0) {
+                chain[v] = chain[v - bestRef] + 1;
+                writeCopyBlocks(out, list, lists[v - bestRef], copied);
+            }
+
+            int previous = -1;
+            for (int i = 0; i < list.length; i++) {
+                if (copied[i]) continue;
+                if (previous == -1) {
+                    out.writeVarint(zigzag(list[i] - v));
+                } else {
+                    out.writeVarint(list[i] - previous - 1);
+                }
+                previous = list[i];
+            }
+        }
+        this.data = Arrays.copyOf(out.bytes, out.size);
+    }
+
+    // Run-length encode which entries of the reference list are also in list
+    private static void writeCopyBlocks(ByteWriter out, int[] list, int[] reference, boolean[] copied) {
+        int[] runs = new int[reference.length + 1];
+        int runCount = 0;
+        boolean copying = true;  // Runs alternate, starting with a copy run
+        int runLength = 0;
+
+        int i = 0;
+        for (int target : reference) {
+            while (i < list.length && list[i] < target) i++;
+            boolean shared = i < list.length && list[i] == target;
+            if (shared) copied[i] = true;
+
+            if (shared != copying) {
+                runs[runCount++] = runLength;
+                copying = !copying;
+                runLength = 0;
+            }
+            runLength++;
+        }
+        if (copying) runs[runCount++] = runLength;  // Trailing skip run stays implicit
+
+        out.writeVarint(runCount);
+        for (int r = 0; r < runCount; r++) out.writeVarint(runs[r]);
+    }
+
+    private static int countShared(int[] a, int[] b) {
+        int i = 0, j = 0, shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                shared++;
+                i++;
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int vertexCount() {
+        return names.length;
+    }
+
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    public int sizeInBytes() {
+        return data.length + 4 * offsets.length;
+    }
+
+    public int idOf(String student) {
+        Integer id = ids.get(student);
+        return id == null ? -1 : id;
+    }
+
+    public String nameOf(int v) {
+        return names[v];
+    }
+
+    // Degree straight from the record header
+    public int degree(int v) {
+        return readVarint(offsets[v], null);
+    }
+
+    // Lazy, ascending iterator over v's neighbours
+    public SuccessorIterator successors(int v) {
+        return new SuccessorIterator(v);
+    }
+
+    // BFS on the compressed form; dist[v] = hops from source (-1 if unreachable)
+    public int[] bfsDistances(int source) {
+        int n = names.length;
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+
+        queue[tail++] = source;
+        dist[source] = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            SuccessorIterator it = successors(current);
+            for (int next = it.nextInt(); next != -1; next = it.nextInt()) {
+                if (dist[next] == -1) {
+                    dist[next] = dist[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Varint at position; the end position is written to end[0] when given
+    private int readVarint(int position, int[] end) {
+        int value = 0, shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        if (end != null) end[0] = position;
+        return value;
+    }
+
+    // Merges the copied part of the reference list with the residual gaps
+    class SuccessorIterator {
+        private final int vertex;
+        private final int[] cursor = new int[1];  // Read position in data
+        private int residualsLeft;
+        private int lastResidual = -1;
+        private int nextResidual;
+
+        private SuccessorIterator reference;
+        private int[] runs;
+        private int runIndex, runLeft;
+        private int nextCopied;
+
+        SuccessorIterator(int v) {
+            this.vertex = v;
+            int degree = readVarint(offsets[v], cursor);
+            residualsLeft = degree;
+            nextCopied = -1;
+            if (degree == 0) {
+                nextResidual = -1;
+                return;
+            }
+
+            int ref = readVarint(cursor[0], cursor);
+            if (ref > 0) {
+                int runCount = readVarint(cursor[0], cursor);
+                runs = new int[runCount];
+                int copiedTotal = 0;
+                for (int r = 0; r < runCount; r++) {
+                    runs[r] = readVarint(cursor[0], cursor);
+                    if (r % 2 == 0) copiedTotal += runs[r];
+                }
+                residualsLeft -= copiedTotal;
+                reference = new SuccessorIterator(v - ref);
+                runLeft = runCount > 0 ? runs[0] : 0;
+                nextCopied = advanceCopied();
+            }
+            nextResidual = advanceResidual();
+        }
+
+        // Next neighbour in ascending order, or -1 when done
+        public int nextInt() {
+            int result;
+            if (nextCopied != -1 && (nextResidual == -1 || nextCopied < nextResidual)) {
+                result = nextCopied;
+                nextCopied = advanceCopied();
+            } else if (nextResidual != -1) {
+                result = nextResidual;
+                nextResidual = advanceResidual();
+            } else {
+                result = -1;
+            }
+            return result;
+        }
+
+        private int advanceResidual() {
+            if (residualsLeft == 0) return -1;
+            residualsLeft--;
+            int raw = readVarint(cursor[0], cursor);
+            lastResidual = (lastResidual == -1) ? vertex + unzigzag(raw) : lastResidual + raw + 1;
+            return lastResidual;
+        }
+
+        private int advanceCopied() {
+            while (runIndex < runs.length) {
+                if (runLeft == 0) {
+                    runIndex++;
+                    if (runIndex < runs.length) runLeft = runs[runIndex];
+                    continue;
+                }
+                int candidate = reference.nextInt();
+                runLeft--;
+                if (runIndex % 2 == 0) return candidate;  // Copy run
+            }
+            return -1;
+        }
+    }
+
+    // Growable byte array for encoding
+    private static class ByteWriter {
+        byte[] bytes = new byte[1024];
+        int size = 0;
+
+        void writeVarint(int value) {
+            if (size + 5 > bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
+
+// ========== HYBRID GRAPH (BIT-MATRIX TILES + ADJACENCY LISTS) ==========
+// Students get dense ids, grouped into blocks of 64. The edges between two blocks
+// form a 64 x 64 tile:
+//   - Dense tile  -> long[64], one 64-bit row per student (bit j = edge to j)
+//   - Sparse tile -> edges kept in each student's sorted int list
+// A tile turns dense once it holds PROMOTE_EDGES edges and goes back to lists
+// below DEMOTE_EDGES (the gap stops it flipping back and forth).
+// hasEdge is one bit test on dense tiles and a binary search otherwise; BFS
+// expands dense tiles 64 neighbours at a time with AND-NOT on the visited bits.
+// Bit tiles carry no weights, so this graph stores connections only.
+
+class HybridGraph {
+    private static final int BLOCK = 64;
+    private static final int PROMOTE_EDGES = BLOCK * BLOCK / 16;  // 256 edges = 6.25% full
+    private static final int DEMOTE_EDGES = BLOCK * BLOCK / 32;   // 128 edges
+
+    private final boolean isDirected;
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[BLOCK];
+    private int n = 0;
+
+    // Sparse part: sorted neighbour ids per vertex
+    private int[][] lists = new int[BLOCK][];
+    private int[] listSize = new int[BLOCK];
+
+    // Dense part, per row block: sorted dense column blocks and their 64-row tiles
+    private int[][] denseColumns = new int[1][];
+    private long[][][] denseTiles = new long[1][][];
+    private int[] denseCount = new int[1];
+    private int denseTileTotal = 0;
+
+    // Edge count per tile (dense or not): open addressing on the packed tile key.
+    // Entries are never removed; a tile that empties just keeps count 0.
+    private long[] countKeys = new long[64];
+    private int[] countValues = new int[64];
+    private boolean[] countUsed = new boolean[64];
+    private int countEntries = 0;
+
+    public HybridGraph(boolean isDirected) {
+        this.isDirected = isDirected;
+    }
+
+    public void addVertex(String student) {
+        if (ids.containsKey(student)) return;
+        if (n == names.length) {
+            names = Arrays.copyOf(names, n * 2);
+            lists = Arrays.copyOf(lists, n * 2);
+            listSize = Arrays.copyOf(listSize, n * 2);
+        }
+        ids.put(student, n);
+        names[n] = student;
+        lists[n] = new int[4];
+        int rowBlock = n / BLOCK;
+        if (rowBlock == denseColumns.length) {
+            denseColumns = Arrays.copyOf(denseColumns, rowBlock * 2);
+            denseTiles = Arrays.copyOf(denseTiles, rowBlock * 2);
+            denseCount = Arrays.copyOf(denseCount, rowBlock * 2);
+        }
+        if (denseColumns[rowBlock] == null) {
+            denseColumns[rowBlock] = new int[2];
+            denseTiles[rowBlock] = new long[2][];
+        }
+        n++;
+    }
+
+    public void addEdge(String from, String to) {
+        addVertex(from);
+        addVertex(to);
+        int u = ids.get(from), v = ids.get(to);
+        addArc(u, v);
+        if (!isDirected) addArc(v, u);
+    }
+
+    public void removeEdge(String from, String to) {
+        Integer u = ids.get(from), v = ids.get(to);
+        if (u == null || v == null) return;
+        removeArc(u, v);
+        if (!isDirected) removeArc(v, u);
+    }
+
+    public boolean hasEdge(String from, String to) {
+        Integer u = ids.get(from), v = ids.get(to);
+        if (u == null || v == null) return false;
+        return hasArc(u, v);
+    }
+
+    public int getDegree(String student) {
+        Integer u = ids.get(student);
+        if (u == null) return 0;
+
+        int degree = listSize[u];
+        int rowBlock = u / BLOCK;
+        for (int i = 0; i < denseCount[rowBlock]; i++) {
+            degree += Long.bitCount(denseTiles[rowBlock][i][u % BLOCK]);
+        }
+        return degree;
+    }
+
+    // Whether the tile holding (from, to) is stored as bits
+    public boolean isDenseBlock(String from, String to) {
+        Integer u = ids.get(from), v = ids.get(to);
+        return u != null && v != null && findTile(u / BLOCK, v / BLOCK) != null;
+    }
+
+    public int getDenseTileCount() {
+        return denseTileTotal;
+    }
+
+    // BFS levels from start (-1 = unreachable), keyed by student
+    public Map<String, Integer> bfsLevels(String start) {
+        Map<String, Integer> levels = new HashMap<>();
+        Integer source = ids.get(start);
+        if (source == null) return levels;
+
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        long[] visited = new long[(n + 63) / 64];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+
+        queue[tail++] = source;
+        dist[source] = 0;
+        visited[source >>> 6] |= 1L << source;
+
+        while (head < tail) {
+            int u = queue[head++];
+
+            // Sparse neighbours
+            for (int i = 0; i < listSize[u]; i++) {
+                int v = lists[u][i];
+                if ((visited[v >>> 6] & (1L << v)) == 0) {
+                    visited[v >>> 6] |= 1L << v;
+                    dist[v] = dist[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+
+            // Dense tiles: the tile row lines up with one word of the visited bitmap
+            int rowBlock = u / BLOCK;
+            for (int i = 0; i < denseCount[rowBlock]; i++) {
+                int colBlock = denseColumns[rowBlock][i];
+                long row = denseTiles[rowBlock][i][u % BLOCK];
+                long fresh = row & ~visited[colBlock];
+                visited[colBlock] |= fresh;
+                while (fresh != 0) {
+                    int v = colBlock * BLOCK + Long.numberOfTrailingZeros(fresh);
+                    fresh &= fresh - 1;
+                    dist[v] = dist[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        for (int v = 0; v < n; v++) {
+            levels.put(names[v], dist[v]);
+        }
+        return levels;
+    }
+
+    private boolean hasArc(int u, int v) {
+        long[] tile = findTile(u / BLOCK, v / BLOCK);
+        if (tile != null) {
+            return (tile[u % BLOCK] & (1L << v)) != 0;  // Shift uses v % 64
+        }
+        return Arrays.binarySearch(lists[u], 0, listSize[u], v) >= 0;
+    }
+
+    private void addArc(int u, int v) {
+        if (hasArc(u, v)) return;
+
+        long[] tile = findTile(u / BLOCK, v / BLOCK);
+        if (tile != null) {
+            tile[u % BLOCK] |= 1L << v;
+        } else {
+            insertIntoList(u, v);
+        }
+
+        int edges = addToTileCount(tileKey(u / BLOCK, v / BLOCK), 1);
+        if (tile == null && edges >= PROMOTE_EDGES) promote(u / BLOCK, v / BLOCK);
+    }
+
+    private void removeArc(int u, int v) {
+        if (!hasArc(u, v)) return;
+
+        long[] tile = findTile(u / BLOCK, v / BLOCK);
+        if (tile != null) {
+            tile[u % BLOCK] &= ~(1L << v);
+        } else {
+            int index = Arrays.binarySearch(lists[u], 0, listSize[u], v);
+            System.arraycopy(lists[u], index + 1, lists[u], index, listSize[u] - index - 1);
+            listSize[u]--;
+        }
+
+        int edges = addToTileCount(tileKey(u / BLOCK, v / BLOCK), -1);
+        if (tile != null && edges < DEMOTE_EDGES) demote(u / BLOCK, v / BLOCK);
+    }
+
+    // Move a tile's edges out of the lists into bits
+    private void promote(int rowBlock, int colBlock) {
+        long[] tile = new long[BLOCK];
+        int colStart = colBlock * BLOCK;
+        for (int u = rowBlock * BLOCK; u < Math.min(n, (rowBlock + 1) * BLOCK); u++) {
+            int kept = 0;
+            for (int i = 0; i < listSize[u]; i++) {
+                int v = lists[u][i];
+                if (v >= colStart && v < colStart + BLOCK) {
+                    tile[u % BLOCK] |= 1L << v;
+                } else {
+                    lists[u][kept++] = v;
+                }
+            }
+            listSize[u] = kept;
+        }
+        int count = denseCount[rowBlock];
+        if (count == denseColumns[rowBlock].length) {
+            denseColumns[rowBlock] = Arrays.copyOf(denseColumns[rowBlock], count * 2);
+            denseTiles[rowBlock] = Arrays.copyOf(denseTiles[rowBlock], count * 2);
+        }
+        int index = -(Arrays.binarySearch(denseColumns[rowBlock], 0, count, colBlock) + 1);
+        System.arraycopy(denseColumns[rowBlock], index, denseColumns[rowBlock], index + 1, count - index);
+        System.arraycopy(denseTiles[rowBlock], index, denseTiles[rowBlock], index + 1, count - index);
+        denseColumns[rowBlock][index] = colBlock;
+        denseTiles[rowBlock][index] = tile;
+        denseCount[rowBlock] = count + 1;
+        denseTileTotal++;
+    }
+
+    // Move a tile's bits back into the lists
+    private void demote(int rowBlock, int colBlock) {
+        int count = denseCount[rowBlock];
+        int index = Arrays.binarySearch(denseColumns[rowBlock], 0, count, colBlock);
+        long[] tile = denseTiles[rowBlock][index];
+        System.arraycopy(denseColumns[rowBlock], index + 1, denseColumns[rowBlock], index, count - index - 1);
+        System.arraycopy(denseTiles[rowBlock], index + 1, denseTiles[rowBlock], index, count - index - 1);
+        denseTiles[rowBlock][count - 1] = null;
+        denseCount[rowBlock] = count - 1;
+        denseTileTotal--;
+        for (int r = 0; r < BLOCK; r++) {
+            long bits = tile[r];
+            while (bits != 0) {
+                insertIntoList(rowBlock * BLOCK + r, colBlock * BLOCK + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private void insertIntoList(int u, int v) {
+        int size = listSize[u];
+        if (size == lists[u].length) lists[u] = Arrays.copyOf(lists[u], size * 2);
+        int index = -(Arrays.binarySearch(lists[u], 0, size, v) + 1);
+        System.arraycopy(lists[u], index, lists[u], index + 1, size - index);
+        lists[u][index] = v;
+        listSize[u] = size + 1;
+    }
+
+    // Dense tile for (rowBlock, colBlock), or null: binary search in the row block's columns
+    private long[] findTile(int rowBlock, int colBlock) {
+        int index = Arrays.binarySearch(denseColumns[rowBlock], 0, denseCount[rowBlock], colBlock);
+        return index >= 0 ? denseTiles[rowBlock][index] : null;
+    }
+
+    // Adjust a tile's edge count and return the new value
+    private int addToTileCount(long key, int delta) {
+        int mask = countKeys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (countUsed[slot] && countKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (!countUsed[slot]) {
+            countUsed[slot] = true;
+            countKeys[slot] = key;
+            countEntries++;
+        }
+        countValues[slot] += delta;
+        int value = countValues[slot];
+        if (countEntries * 2 > countKeys.length) growTileCounts();
+        return value;
+    }
+
+    private void growTileCounts() {
+        long[] oldKeys = countKeys;
+        int[] oldValues = countValues;
+        boolean[] oldUsed = countUsed;
+        countKeys = new long[oldKeys.length * 2];
+        countValues = new int[oldKeys.length * 2];
+        countUsed = new boolean[oldKeys.length * 2];
+        int mask = countKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = Long.hashCode(oldKeys[i] * 0x9E3779B97F4A7C15L) & mask;
+            while (countUsed[slot]) slot = (slot + 1) & mask;
+            countUsed[slot] = true;
+            countKeys[slot] = oldKeys[i];
+            countValues[slot] = oldValues[i];
+        }
+    }
+
+    private static long tileKey(int rowBlock, int colBlock) {
+        return ((long) rowBlock << 32) | colBlock;
+    }
+}
+
+// ========== PARALLEL EDGE-LIST LOADER ==========
+// Reads "from,to[,weight]" lines (comma or tab separated, '#' starts a comment).
+// With hasHeader, the first non-comment line is skipped; any other line that is not
+// a valid edge fails the load with its byte offset instead of being dropped.
+//   1. Split the file into one byte range per core, moving each boundary to the
+//      start of the next line so no line is cut in half.
+//   2. Each range is memory-mapped and parsed by its own fork-join task into
+//      primitive edge arrays with a local name -> id dictionary.
+//   3. Local dictionaries are merged (in file order) into one dense global id space.
+//   4. CSR is built with a parallel counting sort: each task counts its edges per
+//      source, prefix sums give every task its own write positions, then all tasks
+//      scatter at once without locking.
+
+class EdgeListLoader {
+    // Target bytes per mapped chunk; half of the 2 GB map limit leaves room for line alignment
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE / 2;
+
+    public static CsrGraph load(Path file, boolean isDirected) throws IOException {
+        return load(file, isDirected, false);
+    }
+
+    public static CsrGraph load(Path file, boolean isDirected, boolean hasHeader) throws IOException {
+        return load(file, isDirected, hasHeader, ForkJoinPool.commonPool().getParallelism());
+    }
+
+    public static CsrGraph load(Path file, boolean isDirected, boolean hasHeader, int chunks)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            chunks = (int) Math.max(1, Math.min(chunks, size / 4096 + 1));
+            chunks = (int) Math.max(chunks, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+
+            // Step 1: line-aligned byte ranges (after the header, if any)
+            long[] bounds = new long[chunks + 1];
+            bounds[0] = hasHeader ? afterHeader(channel, size) : 0;
+            bounds[chunks] = size;
+            for (int c = 1; c < chunks; c++) {
+                bounds[c] = nextLineStart(channel, Math.max(bounds[c - 1], size * c / chunks), size);
+            }
+
+            // Step 2: parse ranges in parallel
+            List<ChunkParser> parsers = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                parsers.add(new ChunkParser(channel, bounds[c], bounds[c + 1]));
+            }
+            ForkJoinTask.invokeAll(parsers);
+            for (ChunkParser parser : parsers) {
+                if (parser.error != null) throw parser.error;
+            }
+
+            // Step 3: merge dictionaries into global ids
+            HashMap<String, Integer> global = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            for (ChunkParser parser : parsers) {
+                parser.toGlobal = new int[parser.localNames.size()];
+                for (int i = 0; i < parser.localNames.size(); i++) {
+                    String name = parser.localNames.get(i);
+                    Integer id = global.get(name);
+                    if (id == null) {
+                        id = names.size();
+                        global.put(name, id);
+                        names.add(name);
+                    }
+                    parser.toGlobal[i] = id;
+                }
+            }
+            int n = names.size();
+
+            // Step 4: parallel counting sort into CSR
+            List<ForkJoinTask<?>> counting = new ArrayList<>();
+            for (ChunkParser parser : parsers) {
+                counting.add(ForkJoinTask.adapt(() -> parser.countSources(n, isDirected)));
+            }
+            ForkJoinTask.invokeAll(counting);
+
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                int position = offsets[v];
+                for (ChunkParser parser : parsers) {
+                    int count = parser.counts[v];
+                    parser.counts[v] = position;  // Becomes this task's write cursor for v
+                    position += count;
+                }
+                offsets[v + 1] = position;
+            }
+
+            int[] targets = new int[offsets[n]];
+            int[] weights = new int[offsets[n]];
+            List<ForkJoinTask<?>> scatter = new ArrayList<>();
+            for (ChunkParser parser : parsers) {
+                scatter.add(ForkJoinTask.adapt(() -> parser.scatter(targets, weights, isDirected)));
+            }
+            ForkJoinTask.invokeAll(scatter);
+
+            return new CsrGraph(names.toArray(new String[0]), offsets, targets, weights, isDirected);
+        }
+    }
+
+    // First byte after the first line that is neither blank nor a '#' comment
+    private static long afterHeader(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = 0;
+        boolean lineStarted = false, comment = false, content = false;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    if (content && !comment) return position + i + 1;
+                    lineStarted = comment = content = false;
+                } else if (b != '\r') {
+                    if (!lineStarted && b == '#') comment = true;
+                    lineStarted = true;
+                    if (b != ' ' && b != '\t') content = true;
+                }
+            }
+            position += read;
+        }
+        return size;  // Header only, or no header line at all
+    }
+
+    // First byte after the next '\n' at or after position
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Parses one byte range into local ids and primitive edge arrays
+    private static class ChunkParser extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start, end;
+        IOException error;
+
+        final HashMap<String, Integer> localIds = new HashMap<>();
+        final List<String> localNames = new ArrayList<>();
+        int[] from = new int[1024], to = new int[1024], weight = new int[1024];
+        int edgeCount = 0;
+        int[] toGlobal;
+        int[] counts;
+
+        ChunkParser(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("Line-aligned chunk exceeds 2 GB at byte " + start);
+                }
+                parse(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        private void parse(MappedByteBuffer buffer) throws IOException {
+            byte[] token = new byte[256];
+            int limit = buffer.limit();
+            int position = 0;
+            String[] fields = new String[3];
+
+            while (position < limit) {
+                int fieldCount = 0, length = 0;
+                boolean comment = false;
+                long lineStart = start + position;
+
+                // One line: split on ',' or '\t', stop at '\n'
+                while (position < limit) {
+                    byte b = buffer.get(position++);
+                    if (b == '\n') break;
+                    if (comment || b == '\r') continue;
+                    if (b == '#' && fieldCount == 0 && length == 0) {
+                        comment = true;
+                    } else if (b == ',' || b == '\t') {
+                        if (fieldCount < 3) fields[fieldCount++] = trimmed(token, length);
+                        length = 0;
+                    } else {
+                        if (length == token.length) token = Arrays.copyOf(token, length * 2);
+                        token[length++] = b;
+                    }
+                }
+                if (comment) continue;
+                if (fieldCount < 3 && length > 0) fields[fieldCount++] = trimmed(token, length);
+                if (fieldCount == 0 || (fieldCount == 1 && fields[0].isEmpty())) continue;  // Blank line
+                if (fieldCount < 2 || fields[0].isEmpty() || fields[1].isEmpty()) {
+                    throw new IOException("Expected from,to[,weight] at byte " + lineStart);
+                }
+
+                int w = 1;
+                if (fieldCount == 3) {
+                    try {
+                        w = Integer.parseInt(fields[2]);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Weight \"" + fields[2] + "\" is not an integer at byte " + lineStart);
+                    }
+                }
+                addEdge(localId(fields[0]), localId(fields[1]), w);
+            }
+        }
+
+        private static String trimmed(byte[] token, int length) {
+            return new String(token, 0, length, StandardCharsets.UTF_8).trim();
+        }
+
+        private int localId(String name) {
+            Integer id = localIds.get(name);
+            if (id == null) {
+                id = localNames.size();
+                localIds.put(name, id);
+                localNames.add(name);
+            }
+            return id;
+        }
+
+        private void addEdge(int u, int v, int w) {
+            if (edgeCount == from.length) {
+                from = Arrays.copyOf(from, edgeCount * 2);
+                to = Arrays.copyOf(to, edgeCount * 2);
+                weight = Arrays.copyOf(weight, edgeCount * 2);
+            }
+            from[edgeCount] = u;
+            to[edgeCount] = v;
+            weight[edgeCount++] = w;
+        }
+
+        // Translate to global ids and count edges per source
+        void countSources(int n, boolean isDirected) {
+            counts = new int[n];
+            for (int e = 0; e < edgeCount; e++) {
+                from[e] = toGlobal[from[e]];
+                to[e] = toGlobal[to[e]];
+                counts[from[e]]++;
+                if (!isDirected) counts[to[e]]++;
+            }
+        }
+
+        // counts[v] now holds this task's first write position for source v
+        void scatter(int[] targets, int[] weights, boolean isDirected) {
+            for (int e = 0; e < edgeCount; e++) {
+                int slot = counts[from[e]]++;
+                targets[slot] = to[e];
+                weights[slot] = weight[e];
+                if (!isDirected) {
+                    slot = counts[to[e]]++;
+                    targets[slot] = from[e];
+                    weights[slot] = weight[e];
+                }
+            }
+        }
+    }
+}
+
+// ========== CANCELLABLE ANALYTICS JOB SCHEDULER ==========
+// Long graph jobs run on work-stealing ForkJoinPools, one per priority class:
+//   - INTERACTIVE: one worker per core
+//   - BATCH: half the cores at low thread priority, so batch work can never take
+//     every core away from interactive queries
+// Jobs get a JobContext and should call checkpoint() inside their loops. It throws
+// CancellationException once the job is cancelled or past its deadline. Scratch
+// collections registered with track() are cleared as soon as the job is cancelled
+// (or its caller gives up waiting at the deadline), even while the job is still running.
+
+enum JobPriority {
+    INTERACTIVE,  // User-facing queries
+    BATCH         // Reports and full-graph analytics
+}
+
+// A unit of graph work that runs with a context for cancellation and progress
+interface GraphJob<T> {
+    T run(JobContext context);
+}
+
+class JobContext {
+    private static final int CLOCK_CHECK_INTERVAL = 256;  // nanoTime() is not free
+
+    private final long deadlineNanos;  // Long.MAX_VALUE = no deadline
+    private volatile boolean cancelled = false;
+    private volatile double progress = 0.0;
+    private final List<Object> scratch = new ArrayList<>();
+    private int checks = 0;
+
+    public JobContext(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    // Stop here if the job was cancelled or ran out of time
+    public void checkpoint() {
+        if (cancelled) {
+            throw new CancellationException("Job cancelled");
+        }
+        if (++checks % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+            cancelled = true;
+            throw new CancellationException("Job deadline exceeded");
+        }
+    }
+
+    // Register a scratch collection or map so it is cleared when the job ends or is
+    // cancelled. Never track anything the job returns, or reachable from it: it would
+    // come back empty. A cancelled job may find its tracked collections emptied mid-loop.
+    public <S> S track(S collection) {
+        synchronized (scratch) {
+            scratch.add(collection);
+        }
+        return collection;
+    }
+
+    public void reportProgress(long done, long total) {
+        progress = total <= 0 ? 1.0 : Math.min(1.0, (double) done / total);
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isPastDeadline() {
+        return System.nanoTime() > deadlineNanos;
+    }
+
+    long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    // Drop every tracked scratch structure
+    void release() {
+        synchronized (scratch) {
+            for (Object item : scratch) {
+                if (item instanceof Collection) ((Collection<?>) item).clear();
+                else if (item instanceof Map) ((Map<?, ?>) item).clear();
+            }
+            scratch.clear();
+        }
+    }
+}
+
+class JobHandle<T> {
+    private final String name;
+    private final JobPriority priority;
+    private final JobContext context;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    JobHandle(String name, JobPriority priority, JobContext context) {
+        this.name = name;
+        this.priority = priority;
+        this.context = context;
+    }
+
+    // Stop the job: its scratch is freed now, and the job itself ends at its next checkpoint
+    public void cancel() {
+        cancel("Job cancelled");
+    }
+
+    private void cancel(String reason) {
+        context.cancel();
+        result.completeExceptionally(new CancellationException(reason));
+        context.release();
+    }
+
+    // Wait for the result, but never past the deadline, even if the job skips its
+    // checkpoints (throws CancellationException if cancelled or late)
+    public T get() throws InterruptedException, ExecutionException {
+        try {
+            long deadline = context.getDeadlineNanos();
+            if (deadline == Long.MAX_VALUE) return result.get();
+            try {
+                return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancel("Job deadline exceeded");
+                return result.get();  // Already completed: cancelled, or finished just in time
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    public boolean isCancelled() {
+        return context.isCancelled();
+    }
+
+    public double getProgress() {
+        return context.getProgress();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JobPriority getPriority() {
+        return priority;
+    }
+
+    CompletableFuture<T> future() {
+        return result;
+    }
+}
+
+class GraphJobScheduler {
+    private final ForkJoinPool interactivePool;
+    private final ForkJoinPool batchPool;
+
+    public GraphJobScheduler() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.interactivePool = new ForkJoinPool(cores);
+        this.batchPool = new ForkJoinPool(Math.max(1, cores / 2), pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            return worker;
+        }, null, false);
+    }
+
+    // Submit a job; timeoutMillis <= 0 means no deadline
+    public <T> JobHandle<T> submit(String name, JobPriority priority, long timeoutMillis, GraphJob<T> job) {
+        long deadline = timeoutMillis <= 0 ? Long.MAX_VALUE
+                : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        JobContext context = new JobContext(deadline);
+        JobHandle<T> handle = new JobHandle<>(name, priority, context);
+
+        ForkJoinPool pool = (priority == JobPriority.INTERACTIVE) ? interactivePool : batchPool;
+        pool.execute(() -> {
+            try {
+                // Skip jobs cancelled or expired while they were still queued
+                if (context.isCancelled() || context.isPastDeadline()) {
+                    context.cancel();
+                    throw new CancellationException("Job cancelled before it started");
+                }
+                T value = job.run(context);
+                context.reportProgress(1, 1);
+                handle.future().complete(value);
+            } catch (Throwable e) {
+                // Errors too (StackOverflowError, OutOfMemoryError): never leave get() waiting forever
+                handle.future().completeExceptionally(e);
+                if (e instanceof Error) throw (Error) e;
+            } finally {
+                context.release();
+            }
+        });
+        return handle;
+    }
+
+    public void shutdown() {
+        interactivePool.shutdownNow();
+        batchPool.shutdownNow();
+    }
+}
+
+public class CampusSocialNetworkModule6 {
+    public static void main(String[] args) {
+        System.out.println("=== GRAPH REPRESENTATIONS ===\n");
+
+        System.out.println("--- 1. ADJACENCY MATRIX ---\n");
+
+        // Create graph with adjacency matrix
+        String[] students = {"Alice", "Bob", "Charlie", "Diana"};
+        AdjacencyMatrixGraph matrixGraph = new AdjacencyMatrixGraph(students, false);
+
+        // Add edges
+        matrixGraph.addEdge("Alice", "Bob", 5);
+        matrixGraph.addEdge("Alice", "Charlie", 3);
+        matrixGraph.addEdge("Bob", "Diana", 4);
+        matrixGraph.addEdge("Charlie", "Diana", 5);
+
+        // Display matrix
+        matrixGraph.displayMatrix();
+
+        // Check properties
+        System.out.println("\nMatrix Properties:");
+        System.out.println("  Alice's degree: " + matrixGraph.getDegree("Alice"));
+        System.out.println("  Diana's degree: " + matrixGraph.getDegree("Diana"));
+        System.out.println("  Edge Alice-Bob exists? " + matrixGraph.hasEdge("Alice", "Bob"));
+        System.out.println("  Edge Alice-Diana exists? " + matrixGraph.hasEdge("Alice", "Diana"));
+
+        // All-pairs shortest paths (blocked Floyd-Warshall)
+        AllPairsShortestPaths allPairs = matrixGraph.allPairsShortestPaths();
+        System.out.println("\nAll-Pairs Shortest Paths:");
+        System.out.println("  Alice to Diana distance: " + allPairs.getDistance("Alice", "Diana"));
+        System.out.println("  Alice to Diana path: " + String.join(" -> ", allPairs.getPath("Alice", "Diana")));
+
+        System.out.println("\n--- 2. ADJACENCY LIST ---\n");
+        System.out.println("=== UNDIRECTED GRAPH: Mutual Friendships ===\n");
+
+        // Create undirected graph (mutual friendships)
+        SocialGraph friendships = new SocialGraph(false);
+
+        // Add students and friendships
+        friendships.addEdge("Alice", "Bob", 5);      // Very close friends (5)
+        friendships.addEdge("Alice", "Charlie", 3);  // Regular friends (3)
+        friendships.addEdge("Bob", "Diana", 4);
+        friendships.addEdge("Charlie", "Diana", 5);
+        friendships.addEdge("Diana", "Eve", 3);
+        friendships.addEdge("Eve", "Frank", 4);
+        friendships.addEdge("Charlie", "Frank", 2);  // Acquaintances (2)
+
+        friendships.displayGraph();
+
+        // Degree analysis
+        System.out.println("\n=== Degree Analysis ===");
+        System.out.println("Alice's degree: " + friendships.getDegree("Alice"));
+        System.out.println("Diana's degree: " + friendships.getDegree("Diana"));
+        System.out.println("Total degree: " + friendships.getTotalDegree());
+
+        // Graph properties
+        System.out.println("\nIs connected? " + friendships.isConnected());
+        System.out.println("Has cycle? " + friendships.hasCycle());
+        System.out.println("Path Alice to Frank? " + friendships.hasPath("Alice", "Frank"));
+
+        // BFS traversal
+        friendships.bfs("Alice");
+
+        // DFS traversal
+        friendships.dfs("Alice");
+
+        // Find shortest path
+        friendships.findShortestPath("Alice", "Frank");
+        friendships.findShortestPath("Bob", "Eve");
+
+        // Mutual friends for every pair in a group
+        CommonFriendsMatrix mutual = friendships.commonFriendCounts(
+                Arrays.asList("Alice", "Diana", "Frank"));
+        System.out.println("\n=== Mutual Friends ===");
+        System.out.println("Alice & Diana: " + mutual.getCount("Alice", "Diana"));
+        System.out.println("Diana & Frank: " + mutual.getCount("Diana", "Frank"));
+
+        // Personalised recommendations from random walks
+        PersonalizedPageRank pageRank = new PersonalizedPageRank(friendships, 200, 0.15, 42L);
+        System.out.println("\n=== Personalized PageRank for Bob ===");
+        for (Map.Entry<String, Double> entry : pageRank.topK("Bob", 3)) {
+            System.out.printf("  %s: %.3f%n", entry.getKey(), entry.getValue());
+        }
+        pageRank.addEdge("Bob", "Grace", 5);
+        System.out.printf("After Bob <-> Grace, Grace scores %.3f%n", pageRank.score("Bob", "Grace"));
+
+        // k-core decomposition (engaged cohort vs periphery)
+        CoreDecomposition cores = friendships.coreDecomposition();
+        System.out.println("\n=== k-Core Decomposition ===");
+        System.out.println("Max core: " + cores.getMaxCore());
+        System.out.println(cores.getMaxCore() + "-core members: " + cores.getKCoreMembers(cores.getMaxCore()));
+        System.out.println("Grace's core number: " + cores.getCore("Grace"));
+
+        // Closeness backbone (maximum spanning forest)
+        SpanningForest backbone = friendships.spanningForest(true, false);
+        System.out.println("\n=== Closeness Backbone (Maximum Spanning Forest) ===");
+        for (ForestEdge edge : backbone.getEdges()) {
+            System.out.println("  " + edge);
+        }
+        System.out.println("Total weight: " + backbone.getTotalWeight() +
+                " across " + backbone.getComponentCount() + " component(s)");
+
+        // Compressed adjacency with lazy decoding
+        CompressedGraph archive = friendships.compress();
+        System.out.println("\n=== Compressed Graph ===");
+        System.out.println("Edges: " + archive.edgeCount() + ", bytes: " + archive.sizeInBytes());
+        int[] hops = archive.bfsDistances(archive.idOf("Alice"));
+        System.out.println("Hops from Alice to Frank: " + hops[archive.idOf("Frank")]);
+        System.out.println("Diana's degree: " + archive.degree(archive.idOf("Diana")));
+
+        // Hybrid representation (bit tiles for dense clusters, lists elsewhere)
+        HybridGraph hybrid = friendships.toHybrid();
+        System.out.println("\n=== Hybrid Graph ===");
+        System.out.println("Edge Eve-Frank exists? " + hybrid.hasEdge("Eve", "Frank"));
+        System.out.println("Dense tiles: " + hybrid.getDenseTileCount());
+        System.out.println("BFS levels from Alice: " + hybrid.bfsLevels("Alice"));
+
+        // Parallel loading of an exported edge list
+        System.out.println("\n=== Parallel Edge-List Loader ===");
+        try {
+            Path export = Files.createTempFile("friendships", ".csv");
+            Files.write(export, Arrays.asList("from,to,weight", "Alice,Bob,5",
+                    "Bob,Diana,4", "Diana,Eve,3", "Eve,Frank,4"));
+            CsrGraph loaded = EdgeListLoader.load(export, false, true);
+            System.out.println("Loaded " + loaded.vertexCount() + " students, " +
+                    loaded.edgeCount() / 2 + " friendships");
+            SocialGraph.fromCsr(loaded).findShortestPath("Alice", "Frank");
+            Files.delete(export);
+        } catch (IOException e) {
+            System.out.println("✗ Could not load edge list: " + e.getMessage());
+        }
+
+        // Deadline-aware, cancellable analytics jobs
+        System.out.println("\n=== Graph Job Scheduler ===");
+        GraphJobScheduler scheduler = new GraphJobScheduler();
+        JobHandle<Boolean> connectedJob = scheduler.submit("isConnected", JobPriority.INTERACTIVE,
+                1000, friendships::isConnected);
+        JobHandle<Boolean> cycleJob = scheduler.submit("hasCycle", JobPriority.BATCH,
+                1000, friendships::hasCycle);
+        JobHandle<Map<String, Integer>> levelsJob = scheduler.submit("bfsLevels", JobPriority.INTERACTIVE,
+                1000, context -> friendships.bfsLevels("Alice", context));
+        JobHandle<Boolean> slowJob = scheduler.submit("slow", JobPriority.BATCH, 50, context -> {
+            while (true) {
+                context.checkpoint();  // Hits the 50 ms deadline
+            }
+        });
+        try {
+            System.out.println("Is connected? " + connectedJob.get());
+            System.out.println("Has cycle? " + cycleJob.get());
+            System.out.println("BFS levels from Alice: " + levelsJob.get());
+            slowJob.get();
+        } catch (CancellationException e) {
+            System.out.println("Slow job stopped: " + e.getMessage());
+        } catch (InterruptedException | ExecutionException e) {
+            System.out.println("✗ Job failed: " + e.getMessage());
+        }
+        scheduler.shutdown();
 
         System.out.println("\n=== DIRECTED GRAPH: Follow Relationships ===\n");
 